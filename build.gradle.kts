@@ -2,6 +2,7 @@ plugins {
     id("org.spongepowered.gradle.sponge.dev") version "2.1.1"
     id("net.kyori.indra.publishing.sonatype") version "3.2.0"
     id("net.kyori.indra.crossdoc") version "3.2.0"
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 defaultTasks("build")
@@ -15,7 +16,7 @@ repositories {
 val specVersion: String by project
 tasks {
     val version = project.version.toString()
-    withType(JavaCompile::class).configureEach {
+    compileJava {
         doFirst {
             options.compilerArgs.addAll(listOf("--module-path", classpath.asPath, "--module-version", version))
         }
@@ -70,6 +71,11 @@ indra {
     javaVersions().target(21)
 }
 
+jmh {
+    jmhVersion.set("1.37")
+    profilers.add("gc")
+}
+
 indraCrossdoc {
     baseUrl(providers.gradleProperty("javadocPublishRoot"))
 }
@@ -77,6 +83,7 @@ indraCrossdoc {
 dependencies {
     api("org.spongepowered:plugin-meta:0.9.0")
     api("org.apache.logging.log4j:log4j-api:2.17.0")
+    implementation("com.google.code.gson:gson:2.10.1")
     compileOnlyApi("org.checkerframework:checker-qual:3.26.0")
 }
 
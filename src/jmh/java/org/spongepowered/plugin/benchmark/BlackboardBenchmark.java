@@ -0,0 +1,116 @@
+/*
+ * This file is part of plugin-spi, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.plugin.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.spongepowered.plugin.blackboard.Blackboard;
+import org.spongepowered.plugin.blackboard.Key;
+import org.spongepowered.plugin.blackboard.Keys;
+import org.spongepowered.plugin.builtin.ConcurrentBlackboard;
+import org.spongepowered.plugin.builtin.IndexedBlackboard;
+import org.spongepowered.plugin.builtin.StandardBlackboard;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures blackboard lookups and {@link Key} hashing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BlackboardBenchmark {
+
+    @Param({"standard", "concurrent", "indexed"})
+    public String implementation;
+
+    private Blackboard blackboard;
+    private final Key<String> missing = Key.of("benchmark_missing", String.class);
+    // Read through a non-final field so that the JIT cannot fold the key hashing into a constant
+    private Key<List<String>> key = Keys.METADATA_FILE_PATHS;
+
+    @Setup
+    public void setUp() {
+        this.blackboard = switch (this.implementation) {
+            case "standard" -> new StandardBlackboard();
+            case "concurrent" -> new ConcurrentBlackboard();
+            case "indexed" -> new IndexedBlackboard();
+            default -> throw new IllegalArgumentException(this.implementation);
+        };
+        this.blackboard.set(Keys.VERSION, "1.0.0");
+        this.blackboard.set(Keys.BASE_DIRECTORY, Path.of("."));
+        this.blackboard.set(Keys.METADATA_FILE_PATHS, List.of("META-INF/sponge_plugins.json"));
+    }
+
+    @Benchmark
+    public String get() {
+        return this.blackboard.get(Keys.VERSION);
+    }
+
+    @Benchmark
+    public Optional<String> find() {
+        return this.blackboard.find(Keys.VERSION);
+    }
+
+    @Benchmark
+    public Optional<String> findMissing() {
+        return this.blackboard.find(this.missing);
+    }
+
+    @Benchmark
+    public String getOrNull() {
+        return this.blackboard.getOrNull(Keys.VERSION);
+    }
+
+    @Benchmark
+    public String getOrNullMissing() {
+        return this.blackboard.getOrNull(this.missing);
+    }
+
+    @Benchmark
+    public int keyHashCode() {
+        return this.key.hashCode();
+    }
+
+    @Benchmark
+    public boolean keyEquals() {
+        return this.key.equals(this.missing);
+    }
+}
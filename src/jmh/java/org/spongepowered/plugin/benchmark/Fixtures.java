@@ -0,0 +1,145 @@
+/*
+ * This file is part of plugin-spi, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.plugin.benchmark;
+
+import org.apache.logging.log4j.LogManager;
+import org.spongepowered.plugin.Environment;
+import org.spongepowered.plugin.blackboard.Keys;
+import org.spongepowered.plugin.builtin.StandardEnvironment;
+import org.spongepowered.plugin.builtin.jvm.JVMKeys;
+import org.spongepowered.plugin.builtin.jvm.MappedJVMPluginResource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+/**
+ * Generates the synthetic plugin trees the benchmarks run against, so that they need nothing but the
+ * local file system.
+ */
+final class Fixtures {
+
+    static final String METADATA_PATH = "META-INF/sponge_plugins.json";
+
+    private Fixtures() {
+    }
+
+    static Environment environment(final Path base) {
+        final Environment environment = new StandardEnvironment(LogManager.getLogger("benchmark"));
+        environment.blackboard().set(Keys.BASE_DIRECTORY, base);
+        environment.blackboard().set(Keys.METADATA_FILE_PATHS, List.of(Fixtures.METADATA_PATH));
+        environment.blackboard().set(JVMKeys.JVM_PLUGIN_RESOURCE_FACTORY, MappedJVMPluginResource.factory());
+        return environment;
+    }
+
+    /**
+     * Writes jars into a nested tree, ten entries per directory, with a non-jar file beside every jar.
+     *
+     * @param root The root directory
+     * @param count The number of jars
+     * @param withMetadata Whether every jar gets a metadata file
+     * @return The jars written
+     */
+    static List<Path> writeJars(final Path root, final int count, final boolean withMetadata) throws IOException {
+        final List<Path> jars = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Path directory = root;
+            for (int n = i / 10; n > 0; n /= 10) {
+                directory = directory.resolve("d" + n % 10);
+            }
+            Files.createDirectories(directory);
+            final Path jar = directory.resolve("plugin-" + i + ".jar");
+            Fixtures.writeJar(jar, "plugin_" + i, withMetadata);
+            Files.writeString(directory.resolve("plugin-" + i + ".txt"), "not a jar");
+            jars.add(jar);
+        }
+        return jars;
+    }
+
+    static void writeJar(final Path jar, final String id, final boolean withMetadata) throws IOException {
+        final Manifest manifest = new Manifest();
+        manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        manifest.getMainAttributes().putValue("Implementation-Title", id);
+        try (final OutputStream out = Files.newOutputStream(jar);
+             final JarOutputStream jarOut = new JarOutputStream(out, manifest)) {
+            jarOut.putNextEntry(new JarEntry("com/example/" + id + "/Main.class"));
+            jarOut.write(new byte[512]);
+            jarOut.closeEntry();
+            if (withMetadata) {
+                jarOut.putNextEntry(new JarEntry(Fixtures.METADATA_PATH));
+                jarOut.write(Fixtures.metadata(id).getBytes(StandardCharsets.UTF_8));
+                jarOut.closeEntry();
+            }
+        }
+    }
+
+    static String metadata(final String id) {
+        return """
+                {
+                  "loader": {"name": "java_plain", "version": "1.0"},
+                  "license": "MIT",
+                  "global": {
+                    "version": "1.0.0",
+                    "links": {"homepage": "https://example.org", "source": "https://example.org/src"},
+                    "contributors": [{"name": "Example", "description": "Lead"}],
+                    "dependencies": [{"id": "spongeapi", "version": "11.0.0", "load-order": "after", "optional": false}]
+                  },
+                  "plugins": [
+                    {"id": "%1$s", "name": "%1$s", "entrypoint": "com.example.%1$s.Main", "description": "A generated plugin"}
+                  ]
+                }
+                """.formatted(id);
+    }
+
+    static void delete(final Path root) throws IOException {
+        if (Files.notExists(root)) {
+            return;
+        }
+        Files.walkFileTree(root, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult visitFile(final Path file, final BasicFileAttributes attributes) throws IOException {
+                Files.delete(file);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(final Path dir, final IOException ex) throws IOException {
+                Files.delete(dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * This file is part of plugin-spi, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.plugin.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.spongepowered.plugin.Environment;
+import org.spongepowered.plugin.blackboard.Keys;
+import org.spongepowered.plugin.builtin.jvm.locator.ClasspathPluginResourceLocator;
+import org.spongepowered.plugin.builtin.jvm.locator.DirectoryPluginResourceLocator;
+import org.spongepowered.plugin.discovery.DiscoveredResource;
+import org.spongepowered.plugin.discovery.PluginResourceDiscovery;
+import org.spongepowered.plugin.discovery.PluginResourceLocator;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Measures resource location over synthetic trees of jars.
+ * <p>
+ * The classpath locator is measured by pointing {@code java.class.path} at the generated jars for the
+ * duration of the trial. The environment locator reads a process environment variable, which cannot be
+ * set from within the benchmark, so it is covered through the same resource creation path instead.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LocatorBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    public int jars;
+
+    private Path root;
+    private Environment environment;
+    private String classPath;
+
+    private final DirectoryPluginResourceLocator directoryLocator = new DirectoryPluginResourceLocator();
+    private final ClasspathPluginResourceLocator classpathLocator = new ClasspathPluginResourceLocator();
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        this.root = Files.createTempDirectory("plugin-spi-locators");
+        final List<Path> written = Fixtures.writeJars(this.root.resolve("plugins"), this.jars, false);
+        this.environment = Fixtures.environment(this.root);
+        this.environment.blackboard().set(Keys.PLUGIN_DIRECTORIES, List.of(this.root.resolve("plugins")));
+
+        this.classPath = System.getProperty("java.class.path");
+        System.setProperty("java.class.path", written.stream().map(Path::toString).collect(Collectors.joining(File.pathSeparator)));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        System.setProperty("java.class.path", this.classPath);
+        Fixtures.delete(this.root);
+    }
+
+    @Benchmark
+    public Collection<PluginResourceLocator.Result> directory() {
+        return this.directoryLocator.locatePluginResources(this.environment);
+    }
+
+    @Benchmark
+    public Collection<PluginResourceLocator.Result> classpath() {
+        return this.classpathLocator.locatePluginResources(this.environment);
+    }
+
+    @Benchmark
+    public List<DiscoveredResource> concurrentDiscovery() {
+        return PluginResourceDiscovery.locate(this.environment, List.of(this.directoryLocator, this.classpathLocator));
+    }
+}
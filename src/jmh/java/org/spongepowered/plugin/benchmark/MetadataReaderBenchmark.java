@@ -0,0 +1,106 @@
+/*
+ * This file is part of plugin-spi, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.plugin.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.spongepowered.plugin.Environment;
+import org.spongepowered.plugin.blackboard.Keys;
+import org.spongepowered.plugin.builtin.StandardPluginMetadataReader;
+import org.spongepowered.plugin.builtin.jvm.JVMPluginResource;
+import org.spongepowered.plugin.discovery.PluginResource;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link StandardPluginMetadataReader} over generated jars carrying a metadata file each.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MetadataReaderBenchmark {
+
+    @Param({"10", "1000"})
+    public int jars;
+
+    @Param({"false", "true"})
+    public boolean index;
+
+    private Path root;
+    private Environment environment;
+    private List<PluginResource> resources;
+    private final StandardPluginMetadataReader reader = new StandardPluginMetadataReader();
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        this.root = Files.createTempDirectory("plugin-spi-metadata");
+        this.environment = Fixtures.environment(this.root);
+        if (this.index) {
+            this.environment.blackboard().set(Keys.METADATA_INDEX_FILE, Path.of("metadata.index"));
+        }
+        this.resources = new ArrayList<>(this.jars);
+        for (final Path jar : Fixtures.writeJars(this.root.resolve("plugins"), this.jars, true)) {
+            this.resources.add(JVMPluginResource.create(this.environment, jar));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        Fixtures.delete(this.root);
+    }
+
+    @Benchmark
+    public void readMetadata(final Blackhole blackhole) throws Exception {
+        for (final PluginResource resource : this.resources) {
+            blackhole.consume(this.reader.readPluginMetadata(this.environment, resource, List.of()));
+        }
+    }
+
+    @Benchmark
+    public void readHeaders(final Blackhole blackhole) throws Exception {
+        for (final PluginResource resource : this.resources) {
+            blackhole.consume(this.reader.readPluginHeaders(this.environment, resource, List.of()));
+        }
+    }
+}
@@ -8,6 +8,8 @@ import org.spongepowered.plugin.builtin.jvm.locator.EnvironmentPluginResourceLoc
 module org.spongepowered.plugin.spi {
     requires transitive org.spongepowered.plugin.metadata;
     requires transitive org.apache.logging.log4j;
+    requires com.google.gson;
+    requires static jdk.jfr;
 
     exports org.spongepowered.plugin;
     exports org.spongepowered.plugin.blackboard;
@@ -15,6 +17,7 @@ module org.spongepowered.plugin.spi {
     exports org.spongepowered.plugin.builtin.jvm;
     exports org.spongepowered.plugin.builtin.jvm.locator;
     exports org.spongepowered.plugin.discovery;
+    exports org.spongepowered.plugin.jfr;
 
     provides PluginResourceLocator with
             ClasspathPluginResourceLocator,
@@ -26,6 +26,7 @@ package org.spongepowered.plugin;
 
 import org.apache.logging.log4j.Logger;
 import org.spongepowered.plugin.blackboard.Blackboard;
+import org.spongepowered.plugin.blackboard.Keys;
 
 /**
  * Represents the context under which this specification is running under.
@@ -41,4 +42,12 @@ public interface Environment {
      * @return A {@link Blackboard blackboard} which is useful for supplying properties for this environment
      */
     Blackboard blackboard();
+
+    /**
+     * @return The {@link PluginLifecycleListener listener} set under {@link Keys#LIFECYCLE_LISTENER}, or
+     *     {@link PluginLifecycleListener#NONE} if there is none
+     */
+    default PluginLifecycleListener lifecycleListener() {
+        return this.blackboard().getOrDefault(Keys.LIFECYCLE_LISTENER, PluginLifecycleListener.NONE);
+    }
 }
@@ -45,6 +45,19 @@ public interface PluginContainer extends ResourceQueryable {
      */
     Logger logger();
 
+    /**
+     * Gets the ordinal of this container within its {@link Environment environment}.
+     * <p>
+     * Containers created in the same environment are numbered from zero upwards in creation order, so that the
+     * ordinal can index arrays or {@link java.util.BitSet bit sets} in place of maps keyed by container. Ordinals
+     * are unique but may have gaps, such as where a container was created but its plugin then failed to load.
+     *
+     * @return The ordinal, or {@code -1} if this container has none
+     */
+    default int ordinal() {
+        return -1;
+    }
+
     /**
      * @return The instance
      */
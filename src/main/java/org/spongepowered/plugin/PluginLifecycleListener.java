@@ -0,0 +1,95 @@
+/*
+ * This file is part of plugin-spi, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.plugin;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.spongepowered.plugin.discovery.PluginMetadataReader;
+import org.spongepowered.plugin.discovery.PluginResource;
+import org.spongepowered.plugin.discovery.PluginResourceLocator;
+import org.spongepowered.plugin.metadata.PluginMetadata;
+
+/**
+ * Receives timings for the locate, read and load phases of plugin discovery.
+ * <p>
+ * A listener is installed through {@link org.spongepowered.plugin.blackboard.Keys#LIFECYCLE_LISTENER} and
+ * obtained with {@link Environment#lifecycleListener()}. Callbacks are made on whichever thread did the work,
+ * possibly a virtual thread and possibly concurrently, so implementations must be thread-safe, should return
+ * quickly and must not throw. Durations are in nanoseconds. Every method does nothing by default.
+ */
+public interface PluginLifecycleListener {
+
+    /**
+     * A listener that ignores every callback.
+     */
+    PluginLifecycleListener NONE = new PluginLifecycleListener() {
+    };
+
+    /**
+     * Called once a {@link PluginResourceLocator locator} has finished locating resources.
+     *
+     * @param locator The locator
+     * @param nanos The time spent in {@link PluginResourceLocator#locatePluginResources(Environment)}
+     * @param count The number of results, or zero if it failed
+     * @param failure The exception thrown, if any
+     */
+    default void resourcesLocated(final PluginResourceLocator locator, final long nanos, final int count, final @Nullable Exception failure) {
+    }
+
+    /**
+     * Called once a {@link PluginMetadataReader reader} has finished reading metadata from a resource.
+     *
+     * @param reader The reader
+     * @param resource The resource
+     * @param nanos The time spent reading
+     * @param count The number of metadata read, or zero if it failed
+     * @param failure The exception thrown, if any
+     */
+    default void metadataRead(final PluginMetadataReader reader, final PluginResource resource, final long nanos, final int count,
+            final @Nullable Exception failure) {
+    }
+
+    /**
+     * Called by a {@link PluginMetadataReader reader} for each metadata file it reads out of a resource.
+     * Files served from a cache without touching the resource are not reported.
+     *
+     * @param reader The reader
+     * @param resource The resource
+     * @param path The path of the file within the resource
+     * @param bytes The number of bytes read
+     */
+    default void metadataFileRead(final PluginMetadataReader reader, final PluginResource resource, final String path, final long bytes) {
+    }
+
+    /**
+     * Called once a {@link PluginLoader loader} has finished loading a plugin.
+     *
+     * @param loader The loader
+     * @param metadata The metadata of the plugin
+     * @param nanos The time spent in {@link PluginLoader#loadPlugin(Environment, PluginResource, PluginMetadata)}
+     * @param failure The exception thrown, if any
+     */
+    default void pluginLoaded(final PluginLoader loader, final PluginMetadata metadata, final long nanos, final @Nullable Exception failure) {
+    }
+}
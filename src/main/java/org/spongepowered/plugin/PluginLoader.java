@@ -26,8 +26,15 @@ package org.spongepowered.plugin;
 
 import org.apache.maven.artifact.versioning.ArtifactVersion;
 import org.spongepowered.plugin.discovery.PluginResource;
+import org.spongepowered.plugin.internal.Futures;
+import org.spongepowered.plugin.internal.TimedExecutor;
 import org.spongepowered.plugin.metadata.PluginMetadata;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+
 /**
  * A service used to create and load {@link PluginContainer plugins}.
  * <p>
@@ -42,6 +49,9 @@ public interface PluginLoader extends PluginService {
 
     /**
      * Loads the plugin candidate as a {@link PluginContainer container}.
+     * <p>
+     * This may block, and plugins that do not depend on each other may be loaded concurrently; see
+     * {@link PluginService}.
      *
      * @param environment The environment
      * @param resource The candidate resource
@@ -49,4 +59,75 @@ public interface PluginLoader extends PluginService {
      * @return The {@link PluginContainer container}
      */
     PluginContainer loadPlugin(Environment environment, PluginResource resource, PluginMetadata metadata) throws Exception;
+
+    /**
+     * Loads the plugin candidate as a {@link PluginContainer container} asynchronously.
+     * <p>
+     * The default runs {@link #loadPlugin(Environment, PluginResource, PluginMetadata)} on the given executor,
+     * completing exceptionally with a {@link CompletionException} wrapping anything it throws.
+     *
+     * @param environment The environment
+     * @param resource The candidate resource
+     * @param metadata The candidate metadata
+     * @param executor The executor to run blocking work on
+     * @return A stage completing with the {@link PluginContainer container}
+     */
+    default CompletionStage<PluginContainer> loadPluginAsync(final Environment environment, final PluginResource resource, final PluginMetadata metadata,
+            final Executor executor) {
+        return Futures.supplyAsync(() -> this.loadPlugin(environment, resource, metadata), executor);
+    }
+
+    /**
+     * Loads the plugin candidate with the given loader, reporting the time taken to the
+     * {@link Environment#lifecycleListener() lifecycle listener}.
+     *
+     * @param loader The loader
+     * @param environment The environment
+     * @param resource The candidate resource
+     * @param metadata The candidate metadata
+     * @return The {@link PluginContainer container}
+     * @throws Exception if the loader fails
+     */
+    static PluginContainer load(final PluginLoader loader, final Environment environment, final PluginResource resource, final PluginMetadata metadata)
+            throws Exception {
+        final PluginLifecycleListener listener = environment.lifecycleListener();
+        final long start = System.nanoTime();
+        final PluginContainer container;
+        try {
+            container = loader.loadPlugin(environment, resource, metadata);
+        } catch (final Exception ex) {
+            listener.pluginLoaded(loader, metadata, System.nanoTime() - start, ex);
+            throw ex;
+        }
+        listener.pluginLoaded(loader, metadata, System.nanoTime() - start, null);
+        return container;
+    }
+
+    /**
+     * Loads the plugin candidate asynchronously with the given loader, reporting the time taken as
+     * {@link #load(PluginLoader, Environment, PluginResource, PluginMetadata)} does. Timing starts when the
+     * load first runs on the executor, so time spent queued behind other loads is not counted.
+     *
+     * @param loader The loader
+     * @param environment The environment
+     * @param resource The candidate resource
+     * @param metadata The candidate metadata
+     * @param executor The executor to run blocking work on
+     * @return A stage completing with the {@link PluginContainer container}
+     */
+    static CompletableFuture<PluginContainer> loadAsync(final PluginLoader loader, final Environment environment, final PluginResource resource,
+            final PluginMetadata metadata, final Executor executor) {
+        final PluginLifecycleListener listener = environment.lifecycleListener();
+        final TimedExecutor timed = new TimedExecutor(executor);
+        CompletableFuture<PluginContainer> stage;
+        try {
+            stage = loader.loadPluginAsync(environment, resource, metadata, timed).toCompletableFuture();
+        } catch (final RuntimeException ex) {
+            stage = CompletableFuture.failedFuture(ex);
+        }
+        return stage.whenComplete((container, failure) -> {
+            final Exception ex = failure == null ? null : Futures.unwrap(failure);
+            listener.pluginLoaded(loader, metadata, timed.elapsed(), ex);
+        });
+    }
 }
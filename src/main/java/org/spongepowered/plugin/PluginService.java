@@ -24,6 +24,18 @@
  */
 package org.spongepowered.plugin;
 
+/**
+ * A service taking part in discovering or loading plugins.
+ * <p>
+ * Services are called from arbitrary threads, which are usually virtual threads, and one instance may be
+ * called concurrently for different resources or plugins sharing the same {@link Environment environment}.
+ * Services may block on I/O. While blocked they should not hold a monitor ({@code synchronized}), as that
+ * pins a virtual thread to its carrier; a {@link java.util.concurrent.locks.Lock lock} should be used instead.
+ * <p>
+ * Each blocking operation has an asynchronous counterpart returning a {@link java.util.concurrent.CompletionStage}.
+ * By default it runs the blocking operation on the executor it is given, so that existing services work
+ * unchanged; services with natively asynchronous I/O may override it instead.
+ */
 public interface PluginService {
 
     /**
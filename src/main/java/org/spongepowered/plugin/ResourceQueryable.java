@@ -24,10 +24,23 @@
  */
 package org.spongepowered.plugin;
 
+import org.checkerframework.checker.nullness.qual.Nullable;
+
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.regex.Pattern;
 
 /**
  * Represents an entity that can be queried for {@link URI resources}.
@@ -40,7 +53,24 @@ public interface ResourceQueryable {
      * @param path The relative path
      * @return The resolved resource location, if available
      */
-    Optional<URI> locateResource(final String path);
+    default Optional<URI> locateResource(final String path) {
+        return Optional.ofNullable(this.locateResourceOrNull(path));
+    }
+
+    /**
+     * Resolves the location of a bundled resource, given a relative path, without allocating an {@link Optional}.
+     * <p>
+     * This and {@link #locateResource(String)} are each implemented in terms of the other, so implementations
+     * must override at least one of them, and should override this one. The default is kept so that
+     * implementations written against {@link #locateResource(String)} alone continue to work.
+     *
+     * @param path The relative path
+     * @return The resolved resource location, or {@code null} if not available
+     * @see #locateResource(String)
+     */
+    default @Nullable URI locateResourceOrNull(final String path) {
+        return this.locateResource(path).orElse(null);
+    }
 
     /**
      * Opens an {@link InputStream} of the location of a bundled resource, given a relative path.
@@ -49,12 +79,175 @@ public interface ResourceQueryable {
      * @return The opened resource, if available
      */
     default Optional<InputStream> openResource(final String path) {
-        return this.locateResource(path).flatMap(url -> {
-            try {
-                return Optional.of(url.toURL().openStream());
-            } catch (final IOException ignored) {
+        final URI uri = this.locateResourceOrNull(path);
+        if (uri == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(uri.toURL().openStream());
+        } catch (final IOException ignored) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Opens a {@link ReadableByteChannel channel} of a bundled resource, given a relative path.
+     *
+     * @param path The relative path
+     * @return The opened channel, if available
+     */
+    default Optional<ReadableByteChannel> openChannel(final String path) {
+        return this.openResource(path).map(Channels::newChannel);
+    }
+
+    /**
+     * Reads the full contents of a bundled resource, given a relative path.
+     * <p>
+     * The returned buffer may be read-only and may share memory with the underlying resource.
+     *
+     * @param path The relative path
+     * @return The contents, if available
+     */
+    default Optional<ByteBuffer> readBytes(final String path) {
+        final Optional<InputStream> stream = this.openResource(path);
+        if (stream.isEmpty()) {
+            return Optional.empty();
+        }
+        try (final InputStream in = stream.get()) {
+            return Optional.of(ByteBuffer.wrap(in.readAllBytes()));
+        } catch (final IOException ignored) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Maps the contents of a bundled resource into memory, given a relative path.
+     * <p>
+     * Resources backed by a plain file are memory-mapped; others are {@link #readBytes(String) read}.
+     * The returned buffer is read-only.
+     *
+     * @param path The relative path
+     * @return The contents, if available
+     */
+    default Optional<ByteBuffer> mapResource(final String path) {
+        final URI uri = this.locateResourceOrNull(path);
+        if (uri != null && "file".equals(uri.getScheme())) {
+            try (final FileChannel channel = FileChannel.open(Path.of(uri))) {
+                return Optional.of(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+            } catch (final IOException | IllegalArgumentException ignored) {
                 return Optional.empty();
             }
+        }
+        return this.readBytes(path).map(ByteBuffer::asReadOnlyBuffer);
+    }
+
+    /**
+     * Resolves the locations of several bundled resources at once, given their relative paths.
+     *
+     * @param paths The relative paths
+     * @return The resolved locations by path, in the order given, omitting those not available
+     */
+    default Map<String, URI> locateResources(final Collection<String> paths) {
+        final Map<String, URI> locations = new LinkedHashMap<>();
+        for (final String path : paths) {
+            final URI uri = this.locateResourceOrNull(path);
+            if (uri != null) {
+                locations.put(path, uri);
+            }
+        }
+        return locations;
+    }
+
+    /**
+     * Visits every bundled resource whose relative path starts with the given prefix, in a single pass.
+     * <p>
+     * {@link org.spongepowered.plugin.discovery.PluginResource Plugin resources} enumerate the directories and
+     * jars they originate from, and containers backed by one enumerate it. Other entities that cannot
+     * enumerate their resources throw {@link UnsupportedOperationException}.
+     *
+     * @param prefix The path prefix, or an empty string to visit all resources
+     * @param visitor The visitor
+     * @throws UnsupportedOperationException if the resources cannot be enumerated
+     */
+    default void visitResources(final String prefix, final Visitor visitor) {
+        throw new UnsupportedOperationException(this.getClass().getName() + " cannot enumerate its resources");
+    }
+
+    /**
+     * Lists the relative paths of all bundled resources starting with the given prefix.
+     *
+     * @param prefix The path prefix, or an empty string to list all resources
+     * @return The relative paths
+     * @throws UnsupportedOperationException if the resources cannot be enumerated
+     */
+    default List<String> listResources(final String prefix) {
+        final List<String> paths = new ArrayList<>();
+        this.visitResources(prefix, (path, location) -> {
+            paths.add(path);
+            return true;
         });
+        return paths;
+    }
+
+    /**
+     * Lists the relative paths of all bundled resources matching a glob.
+     * <p>
+     * {@code *} and {@code ?} match within a single path segment, {@code **} matches across segments, and
+     * {@code **}{@code /} matches zero or more whole segments, so {@code a/**}{@code /b} matches {@code a/b}.
+     * Only the literal part of the glob before its first wildcard is used to narrow the enumeration.
+     *
+     * @param glob The glob
+     * @return The relative paths
+     * @throws UnsupportedOperationException if the resources cannot be enumerated
+     */
+    default List<String> matchResources(final String glob) {
+        final StringBuilder regex = new StringBuilder();
+        int literal = -1;
+        for (int i = 0; i < glob.length(); i++) {
+            final char c = glob.charAt(i);
+            if (c == '*' || c == '?') {
+                if (literal < 0) {
+                    literal = i;
+                }
+                if (c == '?') {
+                    regex.append("[^/]");
+                } else if (i + 1 < glob.length() && glob.charAt(i + 1) == '*') {
+                    if (i + 2 < glob.length() && glob.charAt(i + 2) == '/') {
+                        regex.append("(?:.*/)?");
+                        i += 2;
+                    } else {
+                        regex.append(".*");
+                        i++;
+                    }
+                } else {
+                    regex.append("[^/]*");
+                }
+            } else {
+                regex.append(Pattern.quote(String.valueOf(c)));
+            }
+        }
+        final Pattern pattern = Pattern.compile(regex.toString());
+        final List<String> paths = new ArrayList<>();
+        this.visitResources(literal < 0 ? glob : glob.substring(0, literal), (path, location) -> {
+            if (pattern.matcher(path).matches()) {
+                paths.add(path);
+            }
+            return true;
+        });
+        return paths;
+    }
+
+    /**
+     * Receives bundled resources during {@link #visitResources(String, Visitor) enumeration}.
+     */
+    @FunctionalInterface
+    interface Visitor {
+
+        /**
+         * @param path The relative path
+         * @param location The resource location
+         * @return {@code true} to continue visiting, {@code false} to stop
+         */
+        boolean visit(String path, URI location);
     }
 }
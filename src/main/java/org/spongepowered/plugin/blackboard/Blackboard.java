@@ -24,6 +24,7 @@
  */
 package org.spongepowered.plugin.blackboard;
 
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.spongepowered.plugin.Environment;
 
 import java.util.Optional;
@@ -43,18 +44,74 @@ public interface Blackboard {
      */
     <V> void set(final Key<V> key, final V value);
 
+    /**
+     * @param key The key
+     * @param <V> The value type
+     * @return The value or {@code null} otherwise
+     */
+    <V> @Nullable V getOrNull(final Key<V> key);
+
+    /**
+     * @param key The key
+     * @param defaultValue The value to return if the key has no corresponding value
+     * @param <V> The value type
+     * @return The value or {@code defaultValue} otherwise
+     */
+    default <V> V getOrDefault(final Key<V> key, final V defaultValue) {
+        final V value = this.getOrNull(key);
+        return value == null ? defaultValue : value;
+    }
+
+    /**
+     * @param key The key
+     * @param defaultValue The value to return if the key has no corresponding value
+     * @return The value or {@code defaultValue} otherwise
+     */
+    default boolean getBoolean(final Key<Boolean> key, final boolean defaultValue) {
+        final Boolean value = this.getOrNull(key);
+        return value == null ? defaultValue : value;
+    }
+
+    /**
+     * @param key The key
+     * @param defaultValue The value to return if the key has no corresponding value
+     * @return The value or {@code defaultValue} otherwise
+     */
+    default int getInt(final Key<Integer> key, final int defaultValue) {
+        final Integer value = this.getOrNull(key);
+        return value == null ? defaultValue : value;
+    }
+
+    /**
+     * @param key The key
+     * @param defaultValue The value to return if the key has no corresponding value
+     * @return The value or {@code defaultValue} otherwise
+     */
+    default long getLong(final Key<Long> key, final long defaultValue) {
+        final Long value = this.getOrNull(key);
+        return value == null ? defaultValue : value;
+    }
+
     /**
      * @param key The key
      * @param <V> The value type
      * @throws IllegalArgumentException if the key has no corresponding value
      * @return The value
      */
-    <V> V get(final Key<V> key);
+    default <V> V get(final Key<V> key) {
+        final V value = this.getOrNull(key);
+        if (value == null) {
+            throw new IllegalArgumentException(String.format("Key '%s' has no value!", key.name()));
+        }
+        return value;
+    }
 
     /**
      * @param key The key
      * @param <V> The value type
      * @return The value or {@link Optional#empty()} otherwise
      */
-    <V> Optional<V> find(final Key<V> key);
+    default <V> Optional<V> find(final Key<V> key) {
+        return Optional.ofNullable(this.getOrNull(key));
+    }
 }
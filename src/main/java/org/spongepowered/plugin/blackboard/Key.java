@@ -26,27 +26,62 @@ package org.spongepowered.plugin.blackboard;
 
 import org.checkerframework.checker.nullness.qual.NonNull;
 
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public final class Key<V> implements Comparable<Key<V>> {
 
+    private static final Map<String, Key<?>> KEYS = new ConcurrentHashMap<>();
+    private static final AtomicInteger NEXT_ORDINAL = new AtomicInteger();
+
     private final String name;
     private final Class<V> clazz;
+    private final int ordinal;
+    private final int hash;
 
-    private Key(final String name, final Class<V> clazz) {
-        this.name = Objects.requireNonNull(name, "name");
+    private Key(final String name, final Class<V> clazz, final int ordinal) {
+        this.name = name;
         this.clazz = clazz;
+        this.ordinal = ordinal;
+        this.hash = name.hashCode();
     }
 
+    /**
+     * Gets the key of the given name, creating it on first use.
+     * <p>
+     * Keys are interned by name: every key of a given name shares the same {@link #ordinal()}, and
+     * repeated calls with the same name and class return the same instance.
+     *
+     * @param name The name
+     * @param clazz The value class
+     * @param <V> The value type
+     * @return The key
+     */
     @SuppressWarnings("unchecked")
     public static <V> Key<V> of(final String name, final Class<? super V> clazz) {
-        return new Key<>(name, (Class<V>) clazz);
+        Objects.requireNonNull(name, "name");
+        final Key<?> interned = Key.KEYS.computeIfAbsent(name, n -> new Key<>(n, clazz, Key.NEXT_ORDINAL.getAndIncrement()));
+        if (interned.clazz == clazz) {
+            return (Key<V>) interned;
+        }
+        return new Key<>(name, (Class<V>) clazz, interned.ordinal);
     }
 
     public String name() {
         return this.name;
     }
 
+    /**
+     * A dense, process-wide index identifying this key by {@link #name() name}, suitable for indexing arrays.
+     *
+     * @return The ordinal
+     */
+    public int ordinal() {
+        return this.ordinal;
+    }
+
     public Class<V> clazz() {
         return this.clazz;
     }
@@ -62,7 +97,7 @@ public final class Key<V> implements Comparable<Key<V>> {
 
     @Override
     public int hashCode() {
-        return Objects.hash(this.name);
+        return this.hash;
     }
 
     @Override
@@ -75,6 +110,6 @@ public final class Key<V> implements Comparable<Key<V>> {
             return false;
         }
 
-        return this.name.equals(((Key<?>) obj).name);
+        return this.ordinal == ((Key<?>) obj).ordinal;
     }
 }
\ No newline at end of file
@@ -24,6 +24,8 @@
  */
 package org.spongepowered.plugin.blackboard;
 
+import org.spongepowered.plugin.PluginLifecycleListener;
+
 import java.nio.file.Path;
 import java.util.List;
 
@@ -35,8 +37,18 @@ public final class Keys {
 
     public static final Key<List<Path>> PLUGIN_DIRECTORIES = Key.of("plugin_directories", List.class);
 
+    public static final Key<Integer> PLUGIN_DIRECTORY_MAX_DEPTH = Key.of("plugin_directory_max_depth", Integer.class);
+
+    public static final Key<List<String>> PLUGIN_DIRECTORY_EXCLUDES = Key.of("plugin_directory_excludes", List.class);
+
     public static final Key<List<String>> METADATA_FILE_PATHS = Key.of("metadata_file_paths", List.class);
 
+    public static final Key<Path> METADATA_INDEX_FILE = Key.of("metadata_index_file", Path.class);
+
+    public static final Key<Integer> RESOURCE_CACHE_SIZE = Key.of("resource_cache_size", Integer.class);
+
+    public static final Key<PluginLifecycleListener> LIFECYCLE_LISTENER = Key.of("lifecycle_listener", PluginLifecycleListener.class);
+
     private Keys() {
     }
 }
@@ -0,0 +1,63 @@
+/*
+ * This file is part of plugin-spi, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.plugin.builtin;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.spongepowered.plugin.blackboard.Blackboard;
+import org.spongepowered.plugin.blackboard.Key;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A {@link Blackboard} that may be written and read from any number of threads.
+ * <p>
+ * Each key can be set exactly once; when several threads race to set the same key, one wins and the
+ * others receive an {@link IllegalStateException}. Reads never lock.
+ */
+public final class ConcurrentBlackboard implements Blackboard {
+
+    private final Map<Key<?>, Object> values;
+
+    public ConcurrentBlackboard() {
+        this.values = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public <V> void set(final Key<V> key, final V value) {
+        Objects.requireNonNull(key, "key");
+        Objects.requireNonNull(value, "value");
+        if (this.values.putIfAbsent(key, value) != null) {
+            throw new IllegalStateException(String.format("Key '%s' already has a value!", key.name()));
+        }
+    }
+
+    @Override
+    public <V> @Nullable V getOrNull(final Key<V> key) {
+        final Object value = this.values.get(Objects.requireNonNull(key, "key"));
+        return value == null ? null : key.clazz().cast(value);
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * This file is part of plugin-spi, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.plugin.builtin;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.spongepowered.plugin.blackboard.Blackboard;
+import org.spongepowered.plugin.blackboard.Key;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A {@link Blackboard} that stores values in a flat array indexed by {@link Key#ordinal()}.
+ * <p>
+ * Lookups are a single array read without hashing or allocation. Values may be set and read from any
+ * number of threads; writers synchronize with each other, readers never lock.
+ */
+public final class IndexedBlackboard implements Blackboard {
+
+    private static final int INITIAL_CAPACITY = 32;
+
+    private volatile AtomicReferenceArray<Object> values;
+
+    public IndexedBlackboard() {
+        this.values = new AtomicReferenceArray<>(IndexedBlackboard.INITIAL_CAPACITY);
+    }
+
+    @Override
+    public <V> void set(final Key<V> key, final V value) {
+        Objects.requireNonNull(key, "key");
+        Objects.requireNonNull(value, "value");
+        synchronized (this) {
+            AtomicReferenceArray<Object> values = this.values;
+            if (key.ordinal() >= values.length()) {
+                final AtomicReferenceArray<Object> grown = new AtomicReferenceArray<>(Math.max(values.length() * 2, key.ordinal() + 1));
+                for (int i = 0; i < values.length(); i++) {
+                    grown.setPlain(i, values.getPlain(i));
+                }
+                this.values = values = grown;
+            }
+            if (!values.compareAndSet(key.ordinal(), null, value)) {
+                throw new IllegalStateException(String.format("Key '%s' already has a value!", key.name()));
+            }
+        }
+    }
+
+    @Override
+    public <V> @Nullable V getOrNull(final Key<V> key) {
+        final AtomicReferenceArray<Object> values = this.values;
+        final int ordinal = Objects.requireNonNull(key, "key").ordinal();
+        final Object value = ordinal < values.length() ? values.get(ordinal) : null;
+        return value == null ? null : key.clazz().cast(value);
+    }
+}
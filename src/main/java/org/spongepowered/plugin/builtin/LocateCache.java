@@ -0,0 +1,141 @@
+/*
+ * This file is part of plugin-spi, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.plugin.builtin;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.spongepowered.plugin.ResourceQueryable;
+
+import java.net.URI;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A bounded cache of resource locations, optionally including resources that were not found.
+ * <p>
+ * Lookups read a concurrent map and take no lock. Once full, an entry is evicted for each new one with the
+ * clock algorithm, an approximation of least recently used eviction: entries are marked when read, and
+ * eviction sweeps the cache, sparing and unmarking marked entries until it finds an unmarked one. Only
+ * inserting an entry takes a lock, which happens once per path that was not cached.
+ * <p>
+ * Misses should only be cached for resources whose contents cannot change, such as jars, so that a file added
+ * to a directory later is not hidden by an earlier miss.
+ */
+final class LocateCache {
+
+    private final int capacity;
+    private final boolean cacheMisses;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private @Nullable Iterator<Entry> hand;
+
+    LocateCache(final int capacity, final boolean cacheMisses) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.cacheMisses = cacheMisses;
+    }
+
+    /**
+     * Locates a resource, asking the given queryable only if the location is not cached.
+     *
+     * @param path The relative path
+     * @param queryable The queryable to locate uncached resources with
+     * @return The location, or {@code null} if the resource does not exist
+     */
+    @Nullable URI locate(final String path, final ResourceQueryable queryable) {
+        final Entry cached = this.entries.get(path);
+        if (cached != null) {
+            if (!cached.used) {
+                cached.used = true;
+            }
+            this.hits.increment();
+            return cached.location;
+        }
+
+        // Located outside the lock, as that may block; racing callers may both locate the same path
+        this.misses.increment();
+        final URI location = queryable.locateResourceOrNull(path);
+        if (location != null || this.cacheMisses) {
+            this.insert(path, new Entry(location));
+        }
+        return location;
+    }
+
+    private void insert(final String path, final Entry entry) {
+        this.lock.lock();
+        try {
+            if (this.entries.putIfAbsent(path, entry) == null) {
+                while (this.entries.size() > this.capacity) {
+                    this.evict();
+                }
+            }
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    private void evict() {
+        while (true) {
+            if (this.hand == null || !this.hand.hasNext()) {
+                this.hand = this.entries.values().iterator();
+            }
+            final Entry entry = this.hand.next();
+            if (entry.used) {
+                entry.used = false;
+            } else {
+                this.hand.remove();
+                return;
+            }
+        }
+    }
+
+    long hits() {
+        return this.hits.sum();
+    }
+
+    long misses() {
+        return this.misses.sum();
+    }
+
+    int size() {
+        return this.entries.size();
+    }
+
+    private static final class Entry {
+
+        final @Nullable URI location;
+        volatile boolean used;
+
+        Entry(final @Nullable URI location) {
+            this.location = location;
+        }
+    }
+}
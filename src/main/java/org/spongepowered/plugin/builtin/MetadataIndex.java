@@ -0,0 +1,293 @@
+/*
+ * This file is part of plugin-spi, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.plugin.builtin;
+
+import org.apache.logging.log4j.Logger;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * A persistent index of the raw metadata documents found in jar resources, keyed by jar path, size and
+ * modification time.
+ * <p>
+ * The index is an append-only log of checksummed records. A record that fails its checksum ends the log;
+ * everything before it is kept and everything after it is discarded, so a torn write or a damaged file
+ * only costs a re-read of the affected jars.
+ * <p>
+ * Lookups take no lock. New records are encoded by the storing thread and appended through one channel that
+ * stays open for the life of the index, so concurrent stores only wait on each other for the write itself.
+ * When the index is opened, entries for jars that no longer exist, such as older versions of updated plugins,
+ * are dropped, and the log is compacted if they or superseded records make up much of it.
+ */
+final class MetadataIndex {
+
+    private static final int MAGIC = 0x50534D49;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = Integer.BYTES * 2;
+    private static final int RECORD_HEADER_SIZE = Integer.BYTES * 2;
+
+    private final Path file;
+    private final Logger logger;
+    private final Map<String, Entry> entries;
+    private final ReentrantLock lock = new ReentrantLock();
+    private @Nullable FileChannel channel;
+
+    private MetadataIndex(final Path file, final Logger logger, final Map<String, Entry> entries) {
+        this.file = file;
+        this.logger = logger;
+        this.entries = entries;
+    }
+
+    static MetadataIndex open(final Path file, final Logger logger) {
+        final Map<String, Entry> entries = new ConcurrentHashMap<>();
+        final byte[] bytes;
+        try {
+            bytes = Files.readAllBytes(file);
+        } catch (final NoSuchFileException ex) {
+            return new MetadataIndex(file, logger, entries);
+        } catch (final IOException ex) {
+            logger.warn("Failed to read metadata index '{}'. Starting with an empty index.", file, ex);
+            return new MetadataIndex(file, logger, entries);
+        }
+
+        final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        int records = 0;
+        int valid = 0;
+        if (buffer.remaining() >= MetadataIndex.HEADER_SIZE && buffer.getInt() == MetadataIndex.MAGIC && buffer.getInt() == MetadataIndex.VERSION) {
+            valid = buffer.position();
+            while (buffer.remaining() >= MetadataIndex.RECORD_HEADER_SIZE) {
+                final int length = buffer.getInt();
+                final int checksum = buffer.getInt();
+                if (length < 0 || length > buffer.remaining()) {
+                    break;
+                }
+                final CRC32 crc = new CRC32();
+                crc.update(bytes, buffer.position(), length);
+                if ((int) crc.getValue() != checksum) {
+                    break;
+                }
+                try (final DataInputStream payload = new DataInputStream(new ByteArrayInputStream(bytes, buffer.position(), length))) {
+                    final String key = payload.readUTF();
+                    entries.put(key, Entry.read(payload));
+                } catch (final IOException ex) {
+                    break;
+                }
+                buffer.position(buffer.position() + length);
+                records++;
+                valid = buffer.position();
+            }
+        }
+
+        final int stale = entries.size();
+        entries.keySet().removeIf(key -> !MetadataIndex.jarExists(key));
+
+        final MetadataIndex index = new MetadataIndex(file, logger, entries);
+        if (valid != bytes.length) {
+            logger.warn("Metadata index '{}' is damaged past offset {}. Discarding the remainder.", file, valid);
+            index.rewrite();
+        } else if (records > entries.size() * 2 || stale != entries.size()) {
+            index.rewrite();
+        }
+        return index;
+    }
+
+    private static boolean jarExists(final String key) {
+        final int end = key.indexOf('\n');
+        try {
+            return Files.exists(Path.of(end < 0 ? key : key.substring(0, end)));
+        } catch (final InvalidPathException ignored) {
+            return false;
+        }
+    }
+
+    Path file() {
+        return this.file;
+    }
+
+    /**
+     * Looks up the metadata documents recorded for a jar.
+     *
+     * @param key The key identifying the jar and the metadata paths that were probed
+     * @param attributes The current attributes of the jar
+     * @return The documents, or {@code null} if the jar is unknown or has changed since it was recorded
+     */
+    @Nullable List<Document> lookup(final String key, final BasicFileAttributes attributes) {
+        final Entry entry = this.entries.get(key);
+        if (entry == null || !entry.matches(attributes)) {
+            return null;
+        }
+        return entry.documents;
+    }
+
+    void store(final String key, final BasicFileAttributes attributes, final List<Document> documents) {
+        final Entry entry = new Entry(attributes.size(), MetadataIndex.modified(attributes), List.copyOf(documents));
+        this.entries.put(key, entry);
+        final ByteBuffer record;
+        try {
+            record = MetadataIndex.record(key, entry);
+        } catch (final IOException ex) {
+            this.logger.warn("Failed to encode metadata index record for '{}'", key, ex);
+            return;
+        }
+
+        // A lock rather than a monitor, so that virtual threads blocked on the append do not pin their carriers
+        this.lock.lock();
+        try {
+            FileChannel channel = this.channel;
+            if (channel == null) {
+                if (this.file.getParent() != null) {
+                    Files.createDirectories(this.file.getParent());
+                }
+                channel = FileChannel.open(this.file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+                if (channel.size() == 0) {
+                    channel.write(MetadataIndex.header());
+                }
+                this.channel = channel;
+            }
+            while (record.hasRemaining()) {
+                channel.write(record);
+            }
+        } catch (final IOException ex) {
+            this.logger.warn("Failed to update metadata index '{}'", this.file, ex);
+            this.closeChannel();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    private void closeChannel() {
+        final FileChannel channel = this.channel;
+        this.channel = null;
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (final IOException ignored) {
+                // Nothing more can be written to it either way
+            }
+        }
+    }
+
+    private void rewrite() {
+        final Path temp = this.file.resolveSibling(this.file.getFileName() + ".tmp");
+        try (final FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(MetadataIndex.header());
+            for (final Map.Entry<String, Entry> entry : this.entries.entrySet()) {
+                channel.write(MetadataIndex.record(entry.getKey(), entry.getValue()));
+            }
+        } catch (final IOException ex) {
+            this.logger.warn("Failed to compact metadata index '{}'", this.file, ex);
+            return;
+        }
+        try {
+            Files.move(temp, this.file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (final IOException ex) {
+            this.logger.warn("Failed to replace metadata index '{}'", this.file, ex);
+        }
+    }
+
+    private static ByteBuffer header() {
+        return ByteBuffer.allocate(MetadataIndex.HEADER_SIZE).putInt(MetadataIndex.MAGIC).putInt(MetadataIndex.VERSION).flip();
+    }
+
+    private static ByteBuffer record(final String key, final Entry entry) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (final DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeUTF(key);
+            out.writeLong(entry.size);
+            out.writeLong(entry.modified);
+            out.writeInt(entry.documents.size());
+            for (final Document document : entry.documents) {
+                out.writeUTF(document.path());
+                out.writeInt(document.contents().length);
+                out.write(document.contents());
+            }
+        }
+        final byte[] payload = bytes.toByteArray();
+        final CRC32 crc = new CRC32();
+        crc.update(payload);
+        return ByteBuffer.allocate(MetadataIndex.RECORD_HEADER_SIZE + payload.length)
+                .putInt(payload.length)
+                .putInt((int) crc.getValue())
+                .put(payload)
+                .flip();
+    }
+
+    private static long modified(final BasicFileAttributes attributes) {
+        return attributes.lastModifiedTime().to(TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * A metadata document as it was read from a resource.
+     *
+     * @param path The path of the document within the resource
+     * @param contents The raw contents
+     */
+    record Document(String path, byte[] contents) {
+    }
+
+    private record Entry(long size, long modified, List<Document> documents) {
+
+        static Entry read(final DataInputStream in) throws IOException {
+            final long size = in.readLong();
+            final long modified = in.readLong();
+            final int count = in.readInt();
+            final List<Document> documents = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                final String path = in.readUTF();
+                final int length = in.readInt();
+                if (length < 0) {
+                    throw new IOException("Negative document length");
+                }
+                documents.add(new Document(path, in.readNBytes(length)));
+            }
+            return new Entry(size, modified, documents);
+        }
+
+        boolean matches(final BasicFileAttributes attributes) {
+            return this.size == attributes.size() && this.modified == MetadataIndex.modified(attributes);
+        }
+    }
+}
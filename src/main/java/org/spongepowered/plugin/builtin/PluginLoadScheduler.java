@@ -0,0 +1,369 @@
+/*
+ * This file is part of plugin-spi, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.plugin.builtin;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.spongepowered.plugin.Environment;
+import org.spongepowered.plugin.PluginContainer;
+import org.spongepowered.plugin.PluginLoader;
+import org.spongepowered.plugin.discovery.PluginResource;
+import org.spongepowered.plugin.internal.Futures;
+import org.spongepowered.plugin.internal.Jfr;
+import org.spongepowered.plugin.internal.TimedExecutor;
+import org.spongepowered.plugin.jfr.LoadPluginEvent;
+import org.spongepowered.plugin.metadata.PluginMetadata;
+import org.spongepowered.plugin.metadata.model.PluginDependency;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.StringJoiner;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Loads {@link Candidate candidates} concurrently, in an order consistent with their dependencies.
+ * <p>
+ * A candidate with a {@link PluginDependency.LoadOrder#AFTER load after} dependency on another candidate is
+ * only loaded once that candidate has finished loading; candidates with no such relation between them are
+ * loaded at the same time. Dependencies on plugins that are not candidates impose no order. If a candidate
+ * fails to load, every candidate with a required load after dependency on it, directly or transitively, is
+ * skipped. Circular load orders are rejected before anything is loaded.
+ * <p>
+ * Each candidate is loaded through
+ * {@link PluginLoader#loadAsync(PluginLoader, Environment, PluginResource, PluginMetadata, Executor)}, so its
+ * loader may be called from any thread, concurrently with other loaders. Where JFR is available, each load
+ * is also recorded as a {@link LoadPluginEvent}.
+ */
+public final class PluginLoadScheduler {
+
+    private PluginLoadScheduler() {
+    }
+
+    /**
+     * Loads the candidates, each on its own virtual thread.
+     *
+     * @param environment The environment
+     * @param candidates The candidates
+     * @return The {@link Result result}
+     * @throws IllegalArgumentException if two candidates share an id or the load order is circular
+     * @throws InterruptedException if interrupted while waiting for the loaders
+     */
+    public static Result load(final Environment environment, final List<Candidate> candidates) throws InterruptedException {
+        try (final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            return PluginLoadScheduler.load(environment, candidates, executor);
+        }
+    }
+
+    /**
+     * Loads the candidates on the given {@link Executor executor}.
+     *
+     * @param environment The environment
+     * @param candidates The candidates
+     * @param executor The executor
+     * @return The {@link Result result}
+     * @throws IllegalArgumentException if two candidates share an id or the load order is circular
+     * @throws InterruptedException if interrupted while waiting for the loaders
+     */
+    public static Result load(final Environment environment, final List<Candidate> candidates, final Executor executor) throws InterruptedException {
+        final Schedule schedule = new Schedule(environment, Graph.of(candidates), executor);
+        return schedule.run();
+    }
+
+    /**
+     * A plugin to be loaded.
+     *
+     * @param loader The loader to load it with
+     * @param resource The resource it was found in
+     * @param metadata Its metadata
+     */
+    public record Candidate(PluginLoader loader, PluginResource resource, PluginMetadata metadata) {
+
+        public Candidate {
+            Objects.requireNonNull(loader, "loader");
+            Objects.requireNonNull(resource, "resource");
+            Objects.requireNonNull(metadata, "metadata");
+        }
+    }
+
+    /**
+     * The outcome of loading a set of candidates. Every candidate appears in exactly one of the collections,
+     * and each collection is in candidate order.
+     *
+     * @param containers The loaded containers, by id
+     * @param failures What the loader threw, by id
+     * @param skipped The ids of the candidates not loaded because a required dependency did not load
+     */
+    public record Result(Map<String, PluginContainer> containers, Map<String, Throwable> failures, List<String> skipped) {
+
+        public Result {
+            containers = Collections.unmodifiableMap(new LinkedHashMap<>(Objects.requireNonNull(containers, "containers")));
+            failures = Collections.unmodifiableMap(new LinkedHashMap<>(Objects.requireNonNull(failures, "failures")));
+            skipped = List.copyOf(Objects.requireNonNull(skipped, "skipped"));
+        }
+    }
+
+    private record Graph(List<Candidate> candidates, int[][] dependencies, int[][] dependents, boolean[][] required) {
+
+        static Graph of(final List<Candidate> candidates) {
+            final int size = candidates.size();
+            final Map<String, Integer> indices = new HashMap<>(size * 2);
+            for (int i = 0; i < size; i++) {
+                final String id = candidates.get(i).metadata().id();
+                if (indices.putIfAbsent(id, i) != null) {
+                    throw new IllegalArgumentException(String.format("Plugin '%s' is a candidate more than once", id));
+                }
+            }
+
+            // Incoming edges, merged so that an edge is required if any declaration of it is
+            final List<Map<Integer, Boolean>> incoming = new ArrayList<>(size);
+            final int[] outgoing = new int[size];
+            for (int i = 0; i < size; i++) {
+                final Map<Integer, Boolean> edges = new LinkedHashMap<>();
+                for (final PluginDependency dependency : candidates.get(i).metadata().dependencies()) {
+                    if (dependency.loadOrder() != PluginDependency.LoadOrder.AFTER) {
+                        continue;
+                    }
+                    final Integer index = indices.get(dependency.id());
+                    if (index != null && index != i) {
+                        edges.merge(index, !dependency.optional(), Boolean::logicalOr);
+                    }
+                }
+                for (final int index : edges.keySet()) {
+                    outgoing[index]++;
+                }
+                incoming.add(edges);
+            }
+
+            final int[][] dependencies = new int[size][];
+            final int[][] dependents = new int[size][];
+            final boolean[][] required = new boolean[size][];
+            for (int i = 0; i < size; i++) {
+                dependents[i] = new int[outgoing[i]];
+                required[i] = new boolean[outgoing[i]];
+                outgoing[i] = 0;
+            }
+            for (int i = 0; i < size; i++) {
+                final Map<Integer, Boolean> edges = incoming.get(i);
+                dependencies[i] = new int[edges.size()];
+                int n = 0;
+                for (final Map.Entry<Integer, Boolean> edge : edges.entrySet()) {
+                    final int index = edge.getKey();
+                    dependencies[i][n++] = index;
+                    dependents[index][outgoing[index]] = i;
+                    required[index][outgoing[index]++] = edge.getValue();
+                }
+            }
+
+            final Graph graph = new Graph(List.copyOf(candidates), dependencies, dependents, required);
+            graph.checkAcyclic();
+            return graph;
+        }
+
+        private void checkAcyclic() {
+            final int[] remaining = new int[this.dependencies.length];
+            final Deque<Integer> ready = new ArrayDeque<>();
+            for (int i = 0; i < remaining.length; i++) {
+                remaining[i] = this.dependencies[i].length;
+                if (remaining[i] == 0) {
+                    ready.add(i);
+                }
+            }
+            int visited = 0;
+            while (!ready.isEmpty()) {
+                final int index = ready.poll();
+                visited++;
+                for (final int dependent : this.dependents[index]) {
+                    if (--remaining[dependent] == 0) {
+                        ready.add(dependent);
+                    }
+                }
+            }
+            if (visited == remaining.length) {
+                return;
+            }
+
+            // Every candidate left over waits on another left over candidate, so walking those waits must loop
+            int index = 0;
+            while (remaining[index] == 0) {
+                index++;
+            }
+            final Map<Integer, Integer> path = new LinkedHashMap<>();
+            while (!path.containsKey(index)) {
+                path.put(index, path.size());
+                for (final int dependency : this.dependencies[index]) {
+                    if (remaining[dependency] > 0) {
+                        index = dependency;
+                        break;
+                    }
+                }
+            }
+            final StringJoiner cycle = new StringJoiner("' after '", "'", "'");
+            final int start = path.get(index);
+            for (final Map.Entry<Integer, Integer> step : path.entrySet()) {
+                if (step.getValue() >= start) {
+                    cycle.add(this.candidates.get(step.getKey()).metadata().id());
+                }
+            }
+            cycle.add(this.candidates.get(index).metadata().id());
+            throw new IllegalArgumentException("Plugins have a circular load order: " + cycle);
+        }
+    }
+
+    private static final class Schedule {
+
+        private final Environment environment;
+        private final Graph graph;
+        private final Executor executor;
+        private final AtomicIntegerArray pending;
+        private final AtomicIntegerArray blocked;
+        private final PluginContainer[] containers;
+        private final Throwable[] failures;
+        private final CountDownLatch remaining;
+
+        Schedule(final Environment environment, final Graph graph, final Executor executor) {
+            this.environment = environment;
+            this.graph = graph;
+            this.executor = executor;
+            final int size = graph.candidates().size();
+            this.pending = new AtomicIntegerArray(size);
+            this.blocked = new AtomicIntegerArray(size);
+            this.containers = new PluginContainer[size];
+            this.failures = new Throwable[size];
+            this.remaining = new CountDownLatch(size);
+        }
+
+        Result run() throws InterruptedException {
+            final List<Integer> roots = new ArrayList<>();
+            for (int i = 0; i < this.containers.length; i++) {
+                this.pending.set(i, this.graph.dependencies()[i].length);
+                if (this.graph.dependencies()[i].length == 0) {
+                    roots.add(i);
+                }
+            }
+            roots.forEach(this::submit);
+            this.remaining.await();
+
+            final Map<String, PluginContainer> containers = new LinkedHashMap<>();
+            final Map<String, Throwable> failures = new LinkedHashMap<>();
+            final List<String> skipped = new ArrayList<>();
+            for (int i = 0; i < this.containers.length; i++) {
+                final String id = this.graph.candidates().get(i).metadata().id();
+                if (this.containers[i] != null) {
+                    containers.put(id, this.containers[i]);
+                } else if (this.failures[i] != null) {
+                    failures.put(id, this.failures[i]);
+                } else {
+                    skipped.add(id);
+                }
+            }
+            return new Result(containers, failures, skipped);
+        }
+
+        private void submit(final int index) {
+            final Candidate candidate = this.graph.candidates().get(index);
+            final Timing timing = new Timing(this.executor);
+            PluginLoader.loadAsync(candidate.loader(), this.environment, candidate.resource(), candidate.metadata(), timing)
+                    .whenComplete((container, failure) -> {
+                        timing.event(candidate, failure == null ? null : Futures.unwrap(failure));
+                        if (failure == null) {
+                            this.containers[index] = container;
+                        } else {
+                            this.failures[index] = Futures.cause(failure);
+                        }
+                        this.complete(index, container != null);
+                    });
+        }
+
+        private void complete(final int index, final boolean loaded) {
+            final Deque<Integer> skipped = new ArrayDeque<>();
+            int current = index;
+            boolean success = loaded;
+            while (true) {
+                final int[] dependents = this.graph.dependents()[current];
+                final boolean[] required = this.graph.required()[current];
+                for (int i = 0; i < dependents.length; i++) {
+                    final int dependent = dependents[i];
+                    if (!success && required[i]) {
+                        this.blocked.set(dependent, 1);
+                    }
+                    if (this.pending.decrementAndGet(dependent) == 0) {
+                        if (this.blocked.get(dependent) == 0) {
+                            this.submit(dependent);
+                        } else {
+                            skipped.add(dependent);
+                        }
+                    }
+                }
+                this.remaining.countDown();
+                if (skipped.isEmpty()) {
+                    return;
+                }
+                current = skipped.poll();
+                success = false;
+            }
+        }
+    }
+
+    /**
+     * The JFR event of one load, restarted when the load first runs on the executor. It is kept behind this
+     * class rather than captured by the lambda reporting it, as a lambda capturing it would load the event
+     * class even where JFR is not available.
+     */
+    private static final class Timing extends TimedExecutor {
+
+        private final @Nullable LoadPluginEvent event;
+
+        Timing(final Executor delegate) {
+            super(delegate);
+            this.event = Jfr.AVAILABLE ? new LoadPluginEvent() : null;
+            if (this.event != null) {
+                this.event.begin();
+            }
+        }
+
+        @Override
+        protected void started() {
+            if (this.event != null) {
+                this.event.begin();
+            }
+        }
+
+        void event(final Candidate candidate, final @Nullable Exception failure) {
+            if (this.event != null) {
+                this.event.finish(candidate.loader(), candidate.metadata(), failure);
+            }
+        }
+    }
+}
@@ -0,0 +1,227 @@
+/*
+ * This file is part of plugin-spi, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.plugin.builtin;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.spongepowered.plugin.PluginContainer;
+import org.spongepowered.plugin.discovery.PluginResource;
+import org.spongepowered.plugin.internal.CanonicalPaths;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.StringJoiner;
+
+/**
+ * An immutable registry of loaded {@link PluginContainer containers}, looked up by id, by
+ * {@link PluginContainer#ordinal() ordinal} or by the path of the {@link PluginResource resource} they were
+ * loaded from.
+ * <p>
+ * Resource paths are canonicalized as discovery does, resolving links where the path exists, so that a path
+ * reached through a link finds the same containers. A registry is {@link Builder built} once loading has
+ * finished and never changes afterwards, and may be shared between threads freely.
+ */
+public final class PluginRegistry {
+
+    private final List<PluginContainer> containers;
+    private final Map<String, PluginContainer> ids;
+    private final PluginContainer[] ordinals;
+    private final Map<Path, List<PluginContainer>> owners;
+
+    private PluginRegistry(final List<PluginContainer> containers, final Map<Path, List<PluginContainer>> owners) {
+        this.containers = List.copyOf(containers);
+
+        final Map<String, PluginContainer> ids = new HashMap<>();
+        int maxOrdinal = -1;
+        for (final PluginContainer container : this.containers) {
+            final String id = container.metadata().id();
+            if (ids.putIfAbsent(id, container) != null) {
+                throw new IllegalArgumentException(String.format("Plugin '%s' is registered more than once", id));
+            }
+            maxOrdinal = Math.max(maxOrdinal, container.ordinal());
+        }
+        this.ids = Map.copyOf(ids);
+
+        this.ordinals = new PluginContainer[maxOrdinal + 1];
+        for (final PluginContainer container : this.containers) {
+            final int ordinal = container.ordinal();
+            if (ordinal < 0) {
+                continue;
+            }
+            if (this.ordinals[ordinal] != null) {
+                throw new IllegalArgumentException(String.format("Plugins '%s' and '%s' share ordinal %d", this.ordinals[ordinal].metadata().id(),
+                        container.metadata().id(), ordinal));
+            }
+            this.ordinals[ordinal] = container;
+        }
+
+        final Map<Path, List<PluginContainer>> copies = new HashMap<>();
+        owners.forEach((path, list) -> copies.put(path, List.copyOf(list)));
+        this.owners = Map.copyOf(copies);
+    }
+
+    /**
+     * @return A new {@link Builder builder}
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return The number of containers
+     */
+    public int size() {
+        return this.containers.size();
+    }
+
+    /**
+     * @return The containers, in the order they were added
+     */
+    public List<PluginContainer> containers() {
+        return this.containers;
+    }
+
+    /**
+     * @param id The plugin id
+     * @return The container, or {@code null} if there is none with the id
+     */
+    public @Nullable PluginContainer byId(final String id) {
+        return this.ids.get(Objects.requireNonNull(id, "id"));
+    }
+
+    /**
+     * @param id The plugin id
+     * @return The container, if there is one with the id
+     */
+    public Optional<PluginContainer> find(final String id) {
+        return Optional.ofNullable(this.byId(id));
+    }
+
+    /**
+     * @param ordinal The ordinal
+     * @return The container, or {@code null} if there is none with the ordinal
+     */
+    public @Nullable PluginContainer byOrdinal(final int ordinal) {
+        return ordinal >= 0 && ordinal < this.ordinals.length ? this.ordinals[ordinal] : null;
+    }
+
+    /**
+     * Gets the containers loaded from the resource at, or containing, the given path.
+     * <p>
+     * The path is matched against the paths of every resource, and failing that against each of its parents
+     * in turn, so that a file within a directory resource is attributed to that resource.
+     * <p>
+     * The absolute, normalized path is tried first; only if no resource contains it is the path resolved
+     * against the file system, so that symbolic links and differences in case are seen through.
+     *
+     * @param path The path
+     * @return The containers, in the order they were added, or an empty list if no resource contains the path
+     */
+    public List<PluginContainer> byPath(final Path path) {
+        final Path normalized = path.toAbsolutePath().normalize();
+        final @Nullable List<PluginContainer> owners = this.owners(normalized);
+        if (owners != null) {
+            return owners;
+        }
+        final Path canonical = CanonicalPaths.of(path);
+        if (!canonical.equals(normalized)) {
+            final @Nullable List<PluginContainer> canonicalOwners = this.owners(canonical);
+            if (canonicalOwners != null) {
+                return canonicalOwners;
+            }
+        }
+        return List.of();
+    }
+
+    private @Nullable List<PluginContainer> owners(final Path path) {
+        for (Path current = path; current != null; current = current.getParent()) {
+            final List<PluginContainer> owners = this.owners.get(current);
+            if (owners != null) {
+                return owners;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return new StringJoiner(", ", this.getClass().getSimpleName() + "[", "]")
+                .add("plugins=" + this.containers.stream().map(container -> container.metadata().id()).toList())
+                .toString();
+    }
+
+    /**
+     * Collects containers for a {@link PluginRegistry registry}. Builders are not thread-safe.
+     */
+    public static final class Builder {
+
+        private final List<PluginContainer> containers = new ArrayList<>();
+        private final Map<Path, List<PluginContainer>> owners = new LinkedHashMap<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Adds a container that is not looked up by path.
+         *
+         * @param container The container
+         * @return This builder, for chaining
+         */
+        public Builder add(final PluginContainer container) {
+            this.containers.add(Objects.requireNonNull(container, "container"));
+            return this;
+        }
+
+        /**
+         * Adds a container, along with the resource it was loaded from.
+         *
+         * @param container The container
+         * @param resource The resource
+         * @return This builder, for chaining
+         */
+        public Builder add(final PluginContainer container, final PluginResource resource) {
+            this.add(container);
+            for (final Path path : resource.paths()) {
+                this.owners.computeIfAbsent(CanonicalPaths.of(path), key -> new ArrayList<>(1)).add(container);
+            }
+            return this;
+        }
+
+        /**
+         * Builds the registry.
+         *
+         * @return The registry
+         * @throws IllegalArgumentException if two containers share an id or an ordinal
+         */
+        public PluginRegistry build() {
+            return new PluginRegistry(this.containers, this.owners);
+        }
+    }
+}
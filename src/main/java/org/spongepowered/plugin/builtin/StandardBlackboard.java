@@ -24,13 +24,13 @@
  */
 package org.spongepowered.plugin.builtin;
 
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.spongepowered.plugin.blackboard.Blackboard;
 import org.spongepowered.plugin.blackboard.Key;
 
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Optional;
 
 public final class StandardBlackboard implements Blackboard {
 
@@ -51,20 +51,8 @@ public final class StandardBlackboard implements Blackboard {
     }
 
     @Override
-    public <V> V get(final Key<V> key) {
-        final Object rawValue = this.values.get(Objects.requireNonNull(key, "key"));
-        if (rawValue == null) {
-            throw new IllegalArgumentException(String.format("Key '%s' has no value!", key.name()));
-        }
-        return key.clazz().cast(rawValue);
-    }
-
-    @Override
-    public <V> Optional<V> find(final Key<V> key) {
+    public <V> @Nullable V getOrNull(final Key<V> key) {
         final Object value = this.values.get(Objects.requireNonNull(key, "key"));
-        if (value == null) {
-            return Optional.empty();
-        }
-        return Optional.of(key.clazz().cast(value));
+        return value == null ? null : key.clazz().cast(value);
     }
 }
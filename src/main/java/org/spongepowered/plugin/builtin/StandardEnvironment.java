@@ -29,15 +29,35 @@ import org.spongepowered.plugin.Environment;
 import org.spongepowered.plugin.blackboard.Blackboard;
 
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public final class StandardEnvironment implements Environment {
 
     private final Logger logger;
     private final Blackboard blackboard;
+    private final AtomicInteger ordinals = new AtomicInteger();
 
     public StandardEnvironment(final Logger logger) {
+        this(logger, new StandardBlackboard());
+    }
+
+    /**
+     * Creates an environment backed by the given {@link Blackboard blackboard}, such as a
+     * {@link ConcurrentBlackboard} when it is shared by concurrent locators and readers.
+     *
+     * @param logger The logger
+     * @param blackboard The blackboard
+     */
+    public StandardEnvironment(final Logger logger, final Blackboard blackboard) {
         this.logger = Objects.requireNonNull(logger, "logger");
-        this.blackboard = new StandardBlackboard();
+        this.blackboard = Objects.requireNonNull(blackboard, "blackboard");
+    }
+
+    /**
+     * @return The next {@link org.spongepowered.plugin.PluginContainer#ordinal() ordinal} of a container created in this environment
+     */
+    int nextOrdinal() {
+        return this.ordinals.getAndIncrement();
     }
 
     @Override
@@ -26,29 +26,71 @@ package org.spongepowered.plugin.builtin;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.spongepowered.plugin.Environment;
 import org.spongepowered.plugin.PluginContainer;
+import org.spongepowered.plugin.blackboard.Keys;
 import org.spongepowered.plugin.discovery.PluginResource;
 import org.spongepowered.plugin.metadata.PluginMetadata;
 
+import java.io.InputStream;
 import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.util.Collection;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.StringJoiner;
 
+/**
+ * A {@link PluginContainer container} that queries its {@link PluginResource resource} for bundled resources.
+ * <p>
+ * When created with an {@link Environment environment} whose blackboard sets {@link Keys#RESOURCE_CACHE_SIZE},
+ * the locations of up to that many resources are cached, so that repeated lookups of the same paths do not
+ * reach the resource again. Resources that were not found are cached as well unless the resource includes a
+ * directory, whose files may be added later. Opening or reading a resource goes to the resource directly.
+ * Containers created with a {@link StandardEnvironment} are also given an {@link #ordinal() ordinal} from it.
+ * <p>
+ * Containers are equal when their plugin ids are; the id and its hash are captured on construction.
+ */
 public class StandardPluginContainer implements PluginContainer {
 
     private final PluginResource resource;
     private final PluginMetadata metadata;
     private final Logger logger;
+    private final @Nullable LocateCache cache;
+    private final String id;
+    private final int hash;
+    private final int ordinal;
 
     public StandardPluginContainer(final PluginResource resource, final PluginMetadata metadata) {
         this(resource, metadata, LogManager.getLogger(metadata.id()));
     }
 
     public StandardPluginContainer(final PluginResource resource, final PluginMetadata metadata, final Logger logger) {
+        this(resource, metadata, logger, 0, -1);
+    }
+
+    public StandardPluginContainer(final Environment environment, final PluginResource resource, final PluginMetadata metadata) {
+        this(environment, resource, metadata, LogManager.getLogger(metadata.id()));
+    }
+
+    public StandardPluginContainer(final Environment environment, final PluginResource resource, final PluginMetadata metadata, final Logger logger) {
+        this(resource, metadata, logger, environment.blackboard().getInt(Keys.RESOURCE_CACHE_SIZE, 0),
+                environment instanceof StandardEnvironment standard ? standard.nextOrdinal() : -1);
+    }
+
+    private StandardPluginContainer(final PluginResource resource, final PluginMetadata metadata, final Logger logger, final int cacheSize,
+            final int ordinal) {
         this.resource = Objects.requireNonNull(resource, "resource");
         this.metadata = Objects.requireNonNull(metadata, "metadata");
         this.logger = Objects.requireNonNull(logger, "logger");
+        this.cache = cacheSize > 0 ? new LocateCache(cacheSize, resource.paths().stream().noneMatch(Files::isDirectory)) : null;
+        this.id = Objects.requireNonNull(metadata.id(), "id");
+        this.hash = this.id.hashCode();
+        this.ordinal = ordinal;
     }
 
     @Override
@@ -61,14 +103,75 @@ public class StandardPluginContainer implements PluginContainer {
         return this.logger;
     }
 
+    @Override
+    public final int ordinal() {
+        return this.ordinal;
+    }
+
+    /**
+     * @return The number of resource lookups answered by the location cache, or zero if there is none
+     */
+    public final long resourceCacheHits() {
+        return this.cache == null ? 0 : this.cache.hits();
+    }
+
+    /**
+     * @return The number of resource lookups that had to query the resource, or zero if there is no location cache
+     */
+    public final long resourceCacheMisses() {
+        return this.cache == null ? 0 : this.cache.misses();
+    }
+
+    /**
+     * @return The number of locations currently cached, or zero if there is no location cache
+     */
+    public final int resourceCacheSize() {
+        return this.cache == null ? 0 : this.cache.size();
+    }
+
     @Override
     public Optional<URI> locateResource(final String path) {
-        return this.resource.locateResource(path);
+        return this.cache == null ? this.resource.locateResource(path) : Optional.ofNullable(this.cache.locate(path, this.resource));
+    }
+
+    @Override
+    public @Nullable URI locateResourceOrNull(final String path) {
+        return this.cache == null ? this.resource.locateResourceOrNull(path) : this.cache.locate(path, this.resource);
+    }
+
+    @Override
+    public Optional<InputStream> openResource(final String path) {
+        return this.resource.openResource(path);
+    }
+
+    @Override
+    public Optional<ReadableByteChannel> openChannel(final String path) {
+        return this.resource.openChannel(path);
+    }
+
+    @Override
+    public Optional<ByteBuffer> readBytes(final String path) {
+        return this.resource.readBytes(path);
+    }
+
+    @Override
+    public Optional<ByteBuffer> mapResource(final String path) {
+        return this.resource.mapResource(path);
+    }
+
+    @Override
+    public Map<String, URI> locateResources(final Collection<String> paths) {
+        return this.cache == null ? this.resource.locateResources(paths) : PluginContainer.super.locateResources(paths);
+    }
+
+    @Override
+    public void visitResources(final String prefix, final Visitor visitor) {
+        this.resource.visitResources(prefix, visitor);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hashCode(this.metadata.id());
+        return this.hash;
     }
 
     @Override
@@ -77,11 +180,15 @@ public class StandardPluginContainer implements PluginContainer {
             return true;
         }
 
+        if (that instanceof StandardPluginContainer other) {
+            return this.hash == other.hash && this.id.equals(other.id);
+        }
+
         if (!(that instanceof PluginContainer)) {
             return false;
         }
 
-        return this.metadata.id().equals(((PluginContainer) that).metadata().id());
+        return this.id.equals(((PluginContainer) that).metadata().id());
     }
 
     protected StringJoiner toStringJoiner() {
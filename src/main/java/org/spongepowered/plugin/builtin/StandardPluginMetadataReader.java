@@ -24,7 +24,11 @@
  */
 package org.spongepowered.plugin.builtin;
 
+import com.google.gson.stream.JsonReader;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.spongepowered.plugin.Environment;
+import org.spongepowered.plugin.PluginLifecycleListener;
+import org.spongepowered.plugin.discovery.PluginMetadataHeader;
 import org.spongepowered.plugin.discovery.PluginMetadataReader;
 import org.spongepowered.plugin.discovery.PluginResource;
 import org.spongepowered.plugin.blackboard.Keys;
@@ -33,17 +37,49 @@ import org.spongepowered.plugin.metadata.PluginMetadata;
 import org.spongepowered.plugin.metadata.builtin.MetadataParser;
 
 import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
 
+/**
+ * Reads {@link PluginMetadata metadata} from the files listed under {@link Keys#METADATA_FILE_PATHS}.
+ * <p>
+ * Metadata files are parsed straight from the resource as they are read. If {@link Keys#METADATA_INDEX_FILE}
+ * is set, the raw metadata documents of single-jar resources are instead read whole and recorded in a
+ * persistent index, resolved against {@link Keys#BASE_DIRECTORY} when relative. Jars whose size and
+ * modification time are unchanged since the last run are then served from the index without being opened,
+ * and jars known to contain no metadata are skipped outright.
+ * <p>
+ * Where several entries in a resource declare the same id, {@link #readPluginMetadata(Environment, PluginResource, List)}
+ * and {@link #readPluginHeaders(Environment, PluginResource, List)} keep the last one, in the order of
+ * {@link Keys#METADATA_FILE_PATHS} and then of the file. The streaming
+ * {@link #readPluginMetadata(Environment, PluginResource, List, Predicate)} hands each entry on as soon as it
+ * is read, so it cannot know of later duplicates, and hands on the first one instead.
+ * <p>
+ * The size of every metadata file read out of a resource is reported to the
+ * {@link Environment#lifecycleListener() lifecycle listener}; files served from the index are not.
+ */
 public final class StandardPluginMetadataReader implements PluginMetadataReader {
 
+    private final ReentrantLock indexLock = new ReentrantLock();
+    private volatile @Nullable MetadataIndex index;
+
     @Override
     public String name() {
         return "standard";
@@ -52,16 +88,343 @@ public final class StandardPluginMetadataReader implements PluginMetadataReader
     @Override
     public Collection<? extends PluginMetadata> readPluginMetadata(final Environment environment, final PluginResource resource, final List<PluginResourceLocator> locators) throws Exception {
         final Map<String, PluginMetadata> result = new LinkedHashMap<>();
+        this.read(environment, resource, metadata -> {
+            result.put(metadata.id(), metadata);
+            return true;
+        });
+        return result.values();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Metadata files are opened and parsed one at a time, in the order of {@link Keys#METADATA_FILE_PATHS};
+     * once the consumer stops reading, the remaining files are not opened at all.
+     */
+    @Override
+    public boolean readPluginMetadata(final Environment environment, final PluginResource resource, final List<PluginResourceLocator> locators,
+            final Predicate<? super PluginMetadata> consumer) throws Exception {
+        final Set<String> seen = new HashSet<>();
+        return this.read(environment, resource, metadata -> !seen.add(metadata.id()) || consumer.test(metadata));
+    }
+
+    private boolean read(final Environment environment, final PluginResource resource, final Predicate<PluginMetadata> consumer) throws Exception {
+        final MetadataIndex index = this.index(environment);
+        final BasicFileAttributes attributes = index == null ? null : StandardPluginMetadataReader.jarAttributes(resource);
+        if (attributes == null) {
+            return this.stream(environment, resource, consumer);
+        }
+        return this.documents(environment, resource, index, attributes, document -> StandardPluginMetadataReader.parse(document, consumer));
+    }
+
+    /**
+     * Parses each metadata file straight from the resource, without reading it whole first.
+     */
+    private boolean stream(final Environment environment, final PluginResource resource, final Predicate<PluginMetadata> consumer) throws IOException {
+        final PluginLifecycleListener listener = environment.lifecycleListener();
         for (final String metadataPath : environment.blackboard().get(Keys.METADATA_FILE_PATHS)) {
             final Optional<InputStream> stream = resource.openResource(metadataPath);
             if (stream.isPresent()) {
-                try (final BufferedReader reader = new BufferedReader(new InputStreamReader(stream.get(), StandardCharsets.UTF_8))) {
-                    for (final PluginMetadata metadata : MetadataParser.read(reader).plugins()) {
-                        result.put(metadata.id(), metadata);
+                final CountingInputStream in = new CountingInputStream(stream.get());
+                final boolean completed;
+                try (final BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+                    completed = StandardPluginMetadataReader.parse(reader, consumer);
+                }
+                listener.metadataFileRead(this, resource, metadataPath, in.count);
+                if (!completed) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Headers are extracted by a streaming scan that only reads the loader name, the global version and the id
+     * and version of each plugin, skipping every other value. Each metadata file is fully parsed at most once,
+     * when the complete metadata of one of its plugins is first resolved.
+     */
+    @Override
+    public List<PluginMetadataHeader> readPluginHeaders(final Environment environment, final PluginResource resource, final List<PluginResourceLocator> locators)
+            throws Exception {
+        final MetadataIndex index = this.index(environment);
+        final BasicFileAttributes attributes = index == null ? null : StandardPluginMetadataReader.jarAttributes(resource);
+        final List<MetadataIndex.Document> documents = new ArrayList<>();
+        this.documents(environment, resource, index, attributes, documents::add);
+
+        final Map<String, PluginMetadataHeader> headers = new LinkedHashMap<>();
+        for (final MetadataIndex.Document document : documents) {
+            final ParsedDocument parsed = new ParsedDocument(document);
+            List<PluginMetadataHeader> scanned;
+            try {
+                scanned = StandardPluginMetadataReader.scanHeaders(parsed);
+            } catch (final IOException | IllegalStateException | NumberFormatException ex) {
+                // Anything the scanner does not understand is left to the parser to report or accept
+                scanned = new ArrayList<>();
+                for (final PluginMetadata metadata : parsed.plugins().values()) {
+                    scanned.add(PluginMetadataHeader.of(metadata));
+                }
+            }
+            for (final PluginMetadataHeader header : scanned) {
+                headers.put(header.id(), header);
+            }
+        }
+        return List.copyOf(headers.values());
+    }
+
+    /**
+     * Hands each metadata document of a resource to the consumer, from the index if the resource is an
+     * unchanged jar and otherwise by reading them out of the resource, in which case they are recorded in
+     * the index once all of them have been read. Without attributes, nothing is looked up or recorded.
+     */
+    private boolean documents(final Environment environment, final PluginResource resource, final @Nullable MetadataIndex index,
+            final @Nullable BasicFileAttributes attributes, final DocumentConsumer consumer) throws IOException {
+        final List<String> metadataPaths = environment.blackboard().get(Keys.METADATA_FILE_PATHS);
+
+        String key = null;
+        if (index != null && attributes != null) {
+            key = StandardPluginMetadataReader.indexKey(resource, metadataPaths);
+            final List<MetadataIndex.Document> documents = index.lookup(key, attributes);
+            if (documents != null) {
+                for (final MetadataIndex.Document document : documents) {
+                    if (!consumer.accept(document)) {
+                        return false;
                     }
                 }
+                return true;
             }
         }
-        return result.values();
+
+        final PluginLifecycleListener listener = environment.lifecycleListener();
+        final List<MetadataIndex.Document> documents = new ArrayList<>();
+        for (final String metadataPath : metadataPaths) {
+            final Optional<InputStream> stream = resource.openResource(metadataPath);
+            if (stream.isPresent()) {
+                final MetadataIndex.Document document;
+                try (final InputStream in = stream.get()) {
+                    document = new MetadataIndex.Document(metadataPath, in.readAllBytes());
+                }
+                listener.metadataFileRead(this, resource, metadataPath, document.contents().length);
+                documents.add(document);
+                if (!consumer.accept(document)) {
+                    return false;
+                }
+            }
+        }
+        if (index != null && attributes != null) {
+            index.store(key, attributes, documents);
+        }
+        return true;
+    }
+
+    private static List<PluginMetadataHeader> scanHeaders(final ParsedDocument document) throws IOException {
+        String loader = null;
+        String globalVersion = null;
+        final List<String[]> plugins = new ArrayList<>();
+        try (final JsonReader reader = new JsonReader(new InputStreamReader(new ByteArrayInputStream(document.contents()), StandardCharsets.UTF_8))) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "loader" -> loader = StandardPluginMetadataReader.scanField(reader, "name");
+                    case "global" -> globalVersion = StandardPluginMetadataReader.scanField(reader, "version");
+                    case "plugins" -> {
+                        reader.beginArray();
+                        while (reader.hasNext()) {
+                            String id = null;
+                            String version = null;
+                            reader.beginObject();
+                            while (reader.hasNext()) {
+                                switch (reader.nextName()) {
+                                    case "id" -> id = reader.nextString();
+                                    case "version" -> version = reader.nextString();
+                                    default -> reader.skipValue();
+                                }
+                            }
+                            reader.endObject();
+                            if (id == null) {
+                                throw new IllegalStateException("Plugin entry without an id");
+                            }
+                            plugins.add(new String[] {id, version});
+                        }
+                        reader.endArray();
+                    }
+                    default -> reader.skipValue();
+                }
+            }
+            reader.endObject();
+        }
+
+        final List<PluginMetadataHeader> headers = new ArrayList<>(plugins.size());
+        for (final String[] plugin : plugins) {
+            final String id = plugin[0];
+            headers.add(PluginMetadataHeader.lazy(id, plugin[1] == null ? globalVersion : plugin[1], loader, () -> {
+                final PluginMetadata metadata = document.plugins().get(id);
+                if (metadata == null) {
+                    throw new IllegalStateException(String.format("Plugin '%s' is missing from '%s'", id, document.path()));
+                }
+                return metadata;
+            }));
+        }
+        return headers;
+    }
+
+    private static @Nullable String scanField(final JsonReader reader, final String field) throws IOException {
+        String value = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (reader.nextName().equals(field)) {
+                value = reader.nextString();
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return value;
+    }
+
+    private static String indexKey(final PluginResource resource, final List<String> metadataPaths) {
+        return resource.paths().getFirst().toAbsolutePath() + "\n" + String.join("\n", metadataPaths);
+    }
+
+    private static boolean parse(final MetadataIndex.Document document, final Predicate<PluginMetadata> consumer) throws IOException {
+        try (final BufferedReader reader = new BufferedReader(new InputStreamReader(new ByteArrayInputStream(document.contents()), StandardCharsets.UTF_8))) {
+            return StandardPluginMetadataReader.parse(reader, consumer);
+        }
+    }
+
+    private static boolean parse(final BufferedReader reader, final Predicate<PluginMetadata> consumer) throws IOException {
+        for (final PluginMetadata metadata : MetadataParser.read(reader).plugins()) {
+            if (!consumer.test(metadata)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static @Nullable BasicFileAttributes jarAttributes(final PluginResource resource) {
+        if (resource.paths().size() != 1) {
+            return null;
+        }
+        try {
+            final BasicFileAttributes attributes = Files.readAttributes(resource.paths().getFirst(), BasicFileAttributes.class);
+            return attributes.isRegularFile() ? attributes : null;
+        } catch (final IOException ignored) {
+            return null;
+        }
+    }
+
+    private @Nullable MetadataIndex index(final Environment environment) {
+        final Path configured = environment.blackboard().getOrNull(Keys.METADATA_INDEX_FILE);
+        if (configured == null) {
+            return null;
+        }
+        final Path base = environment.blackboard().getOrNull(Keys.BASE_DIRECTORY);
+        final Path file = base == null ? configured : base.resolve(configured);
+
+        MetadataIndex index = this.index;
+        if (index == null || !index.file().equals(file)) {
+            this.indexLock.lock();
+            try {
+                index = this.index;
+                if (index == null || !index.file().equals(file)) {
+                    index = MetadataIndex.open(file, environment.logger());
+                    this.index = index;
+                }
+            } finally {
+                this.indexLock.unlock();
+            }
+        }
+        return index;
+    }
+
+    @FunctionalInterface
+    private interface DocumentConsumer {
+
+        boolean accept(MetadataIndex.Document document) throws IOException;
+    }
+
+    /**
+     * A metadata document that is fully parsed at most once, on first use.
+     */
+    private static final class ParsedDocument {
+
+        private final MetadataIndex.Document document;
+        // A lock rather than a monitor, so that virtual threads blocked on the parse do not pin their carriers
+        private final ReentrantLock lock = new ReentrantLock();
+        private volatile @Nullable Map<String, PluginMetadata> plugins;
+
+        ParsedDocument(final MetadataIndex.Document document) {
+            this.document = document;
+        }
+
+        String path() {
+            return this.document.path();
+        }
+
+        byte[] contents() {
+            return this.document.contents();
+        }
+
+        Map<String, PluginMetadata> plugins() throws IOException {
+            Map<String, PluginMetadata> plugins = this.plugins;
+            if (plugins != null) {
+                return plugins;
+            }
+            this.lock.lock();
+            try {
+                plugins = this.plugins;
+                if (plugins == null) {
+                    final Map<String, PluginMetadata> parsed = new LinkedHashMap<>();
+                    StandardPluginMetadataReader.parse(this.document, metadata -> {
+                        parsed.put(metadata.id(), metadata);
+                        return true;
+                    });
+                    plugins = parsed;
+                    this.plugins = plugins;
+                }
+                return plugins;
+            } finally {
+                this.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Counts the bytes read through it, so that files parsed straight from a resource can still be reported.
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+
+        long count;
+
+        CountingInputStream(final InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            final int read = super.read();
+            if (read >= 0) {
+                this.count++;
+            }
+            return read;
+        }
+
+        @Override
+        public int read(final byte[] bytes, final int offset, final int length) throws IOException {
+            final int read = super.read(bytes, offset, length);
+            if (read > 0) {
+                this.count += read;
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(final long n) throws IOException {
+            final long skipped = super.skip(n);
+            this.count += skipped;
+            return skipped;
+        }
     }
 }
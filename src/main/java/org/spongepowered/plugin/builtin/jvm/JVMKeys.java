@@ -26,12 +26,16 @@ package org.spongepowered.plugin.builtin.jvm;
 
 import org.spongepowered.plugin.blackboard.Key;
 
+import java.nio.file.Path;
+
 public final class JVMKeys {
 
     public static final Key<String> ENVIRONMENT_LOCATOR_VARIABLE_NAME = Key.of("environment_locator_variable_name", String.class);
 
     public static final Key<JVMPluginResource.Factory> JVM_PLUGIN_RESOURCE_FACTORY = Key.of("jvm_plugin_resource_factory", JVMPluginResource.Factory.class);
 
+    public static final Key<Path> DISCOVERY_SNAPSHOT_FILE = Key.of("discovery_snapshot_file", Path.class);
+
     private JVMKeys() {
     }
 }
@@ -24,12 +24,12 @@
  */
 package org.spongepowered.plugin.builtin.jvm;
 
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.spongepowered.plugin.Environment;
 import org.spongepowered.plugin.discovery.PluginResource;
 
 import java.nio.file.Path;
 import java.util.Objects;
-import java.util.Optional;
 import java.util.jar.Manifest;
 
 public interface JVMPluginResource extends PluginResource {
@@ -37,8 +37,8 @@ public interface JVMPluginResource extends PluginResource {
     Manifest manifest();
 
     @Override
-    default Optional<String> property(final String key) {
-        return Optional.ofNullable(this.manifest().getMainAttributes().getValue(Objects.requireNonNull(key, "key")));
+    default @Nullable String propertyOrNull(final String key) {
+        return this.manifest().getMainAttributes().getValue(Objects.requireNonNull(key, "key"));
     }
 
     /**
@@ -0,0 +1,171 @@
+/*
+ * This file is part of plugin-spi, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.plugin.builtin.jvm;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.jar.Manifest;
+
+/**
+ * A view over the raw bytes of a {@code META-INF/MANIFEST.MF} that answers main attribute queries by
+ * scanning the bytes directly, and only builds a full {@link Manifest} when one is asked for.
+ */
+public final class LazyManifest {
+
+    private static final LazyManifest EMPTY = new LazyManifest(ByteBuffer.allocate(0));
+
+    private final ByteBuffer bytes;
+    private volatile @Nullable Manifest manifest;
+
+    private LazyManifest(final ByteBuffer bytes) {
+        this.bytes = bytes;
+    }
+
+    /**
+     * @param bytes The raw manifest; the buffer is not copied and must not be modified afterwards
+     * @return The view
+     */
+    public static LazyManifest of(final ByteBuffer bytes) {
+        return new LazyManifest(Objects.requireNonNull(bytes, "bytes").asReadOnlyBuffer());
+    }
+
+    /**
+     * @return A view of an empty manifest
+     */
+    public static LazyManifest empty() {
+        return LazyManifest.EMPTY;
+    }
+
+    /**
+     * Finds a main attribute by scanning the main section of the raw manifest.
+     * <p>
+     * Names are matched case-insensitively, and continuation lines are joined, as for
+     * {@link java.util.jar.Attributes#getValue(String)}.
+     *
+     * @param name The attribute name
+     * @return The value or {@code null} if the main section does not contain the attribute
+     */
+    public @Nullable String mainAttribute(final String name) {
+        Objects.requireNonNull(name, "name");
+        final Manifest manifest = this.manifest;
+        if (manifest != null) {
+            return manifest.getMainAttributes().getValue(name);
+        }
+
+        final ByteBuffer bytes = this.bytes;
+        final int limit = bytes.limit();
+        int line = bytes.position();
+        while (line < limit) {
+            final int end = LazyManifest.lineEnd(bytes, line, limit);
+            if (end == line) {
+                // An empty line ends the main section
+                return null;
+            }
+            if (LazyManifest.matches(bytes, line, end, name)) {
+                // Continuation lines may split a multibyte character, so the value is decoded once joined
+                final ByteArrayOutputStream value = new ByteArrayOutputStream(end - line);
+                int start = line + name.length() + 2;
+                int stop = end;
+                while (true) {
+                    LazyManifest.copy(bytes, start, stop, value);
+                    final int next = LazyManifest.nextLine(bytes, stop, limit);
+                    if (next >= limit || bytes.get(next) != ' ') {
+                        return value.toString(StandardCharsets.UTF_8);
+                    }
+                    start = next + 1;
+                    stop = LazyManifest.lineEnd(bytes, next, limit);
+                }
+            }
+            line = LazyManifest.nextLine(bytes, end, limit);
+        }
+        return null;
+    }
+
+    /**
+     * @return The fully parsed manifest, built on first call
+     */
+    public Manifest manifest() {
+        Manifest manifest = this.manifest;
+        if (manifest == null) {
+            final ByteBuffer bytes = this.bytes.duplicate();
+            final byte[] raw = new byte[bytes.remaining()];
+            bytes.get(raw);
+            try {
+                manifest = new Manifest(new ByteArrayInputStream(raw));
+            } catch (final IOException ex) {
+                throw new UncheckedIOException("Invalid manifest", ex);
+            }
+            this.manifest = manifest;
+        }
+        return manifest;
+    }
+
+    private static boolean matches(final ByteBuffer bytes, final int line, final int end, final String name) {
+        final int length = name.length();
+        if (end - line < length + 2 || bytes.get(line + length) != ':' || bytes.get(line + length + 1) != ' ') {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            final int b = bytes.get(line + i);
+            final char c = name.charAt(i);
+            if (b != c && Character.toLowerCase((char) b) != Character.toLowerCase(c)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void copy(final ByteBuffer bytes, final int start, final int end, final ByteArrayOutputStream out) {
+        final byte[] raw = new byte[end - start];
+        bytes.get(start, raw);
+        out.writeBytes(raw);
+    }
+
+    private static int lineEnd(final ByteBuffer bytes, final int start, final int limit) {
+        int i = start;
+        while (i < limit) {
+            final byte b = bytes.get(i);
+            if (b == '\n' || b == '\r') {
+                break;
+            }
+            i++;
+        }
+        return i;
+    }
+
+    private static int nextLine(final ByteBuffer bytes, final int end, final int limit) {
+        if (end < limit && bytes.get(end) == '\r') {
+            return end + 1 < limit && bytes.get(end + 1) == '\n' ? end + 2 : end + 1;
+        }
+        return end < limit ? end + 1 : end;
+    }
+}
@@ -0,0 +1,613 @@
+/*
+ * This file is part of plugin-spi, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.plugin.builtin.jvm;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.spongepowered.plugin.internal.Jfr;
+import org.spongepowered.plugin.jfr.OpenResourceEvent;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.StringJoiner;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiPredicate;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+
+/**
+ * A {@link JVMPluginResource} that reads jars through a memory mapping instead of a
+ * {@link java.util.zip.ZipFile} or zip file system.
+ * <p>
+ * Each jar is mapped and its central directory parsed into a compact index on first use, which keeps
+ * the heap cost per jar to the index alone. {@link #property(String) Properties} are read from the raw
+ * manifest by a {@link LazyManifest}, so a full {@link Manifest} is only built if asked for. Directories
+ * are read from the file system directly.
+ * <p>
+ * When several paths are given, the resource is a union: on first use, the entries of every jar and
+ * the files of every directory are merged into a single index, after which each lookup is one hash
+ * probe. Where paths share an entry, the earliest path in {@link #paths()} takes precedence, as on a
+ * classpath. Files added to a directory after the index was built are not seen.
+ * <p>
+ * A path that is missing or is not a readable jar is logged once and then treated as empty, so lookups
+ * keep returning {@link Optional#empty()} or {@code null} for it rather than failing.
+ * <p>
+ * Jars stay mapped until the resource is {@link #close() closed} and no buffer, stream or channel obtained
+ * from it is reachable any more, at which point the garbage collector releases the mapping. A mapped jar
+ * must not be rewritten in place, as reading a mapping whose file was truncated fails with an
+ * {@link InternalError} or worse; replace it by writing a new file and renaming it over the old one, then
+ * close the resource that mapped the old file. On Windows a mapped file cannot be replaced at all until its
+ * mapping has been released.
+ * <p>
+ * To use it, register {@link #factory()} under {@link JVMKeys#JVM_PLUGIN_RESOURCE_FACTORY}.
+ */
+public final class MappedJVMPluginResource implements JVMPluginResource, AutoCloseable {
+
+    private static final Logger LOGGER = LogManager.getLogger(MappedJVMPluginResource.class);
+    private static final Source[] CLOSED = new Source[0];
+
+    private final List<Path> paths;
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile Source @Nullable [] sources;
+    private volatile @Nullable LazyManifest manifest;
+
+    private MappedJVMPluginResource(final List<Path> paths) {
+        this.paths = paths;
+    }
+
+    /**
+     * @return A {@link JVMPluginResource.Factory factory} creating mapped resources
+     */
+    public static JVMPluginResource.Factory factory() {
+        return MappedJVMPluginResource::create;
+    }
+
+    /**
+     * Creates a mapped resource. The paths are not read until the resource is first queried.
+     *
+     * @param paths The paths, each pointing to a jar or a directory
+     * @return The resource
+     */
+    public static MappedJVMPluginResource create(final Path... paths) {
+        if (paths.length == 0) {
+            throw new IllegalArgumentException("At least one path is required");
+        }
+        return new MappedJVMPluginResource(List.of(paths));
+    }
+
+    @Override
+    public List<Path> paths() {
+        return this.paths;
+    }
+
+    @Override
+    public Manifest manifest() {
+        return this.lazyManifest().manifest();
+    }
+
+    @Override
+    public @Nullable String propertyOrNull(final String key) {
+        return this.lazyManifest().mainAttribute(Objects.requireNonNull(key, "key"));
+    }
+
+    private LazyManifest lazyManifest() {
+        LazyManifest manifest = this.manifest;
+        if (manifest == null) {
+            if (this.sources() == MappedJVMPluginResource.CLOSED) {
+                return LazyManifest.empty();
+            }
+            try {
+                final ByteBuffer bytes = this.read(JarFile.MANIFEST_NAME);
+                manifest = bytes == null ? LazyManifest.empty() : LazyManifest.of(bytes);
+            } catch (final IOException ex) {
+                MappedJVMPluginResource.LOGGER.warn("Failed to read the manifest of {}", this.paths, ex);
+                manifest = LazyManifest.empty();
+            }
+            this.manifest = manifest;
+        }
+        return manifest;
+    }
+
+    @Override
+    public Optional<ReadableByteChannel> openChannel(final String path) {
+        Objects.requireNonNull(path, "path");
+        final OpenResourceEvent event = Jfr.AVAILABLE ? new OpenResourceEvent() : null;
+        if (event != null) {
+            event.begin();
+        }
+        ReadableByteChannel channel = null;
+        try {
+            for (final Source source : this.sources()) {
+                channel = source.channel(path);
+                if (channel != null) {
+                    break;
+                }
+            }
+        } catch (final IOException ignored) {
+            channel = null;
+        }
+        if (event != null) {
+            event.finish(this, "openChannel", path, channel != null);
+        }
+        return Optional.ofNullable(channel);
+    }
+
+    @Override
+    public Optional<ByteBuffer> readBytes(final String path) {
+        Objects.requireNonNull(path, "path");
+        final OpenResourceEvent event = Jfr.AVAILABLE ? new OpenResourceEvent() : null;
+        if (event != null) {
+            event.begin();
+        }
+        ByteBuffer bytes;
+        try {
+            bytes = this.read(path);
+        } catch (final IOException ignored) {
+            bytes = null;
+        }
+        if (event != null) {
+            event.finish(this, "readBytes", path, bytes != null);
+        }
+        return Optional.ofNullable(bytes);
+    }
+
+    @Override
+    public Optional<ByteBuffer> mapResource(final String path) {
+        Objects.requireNonNull(path, "path");
+        final OpenResourceEvent event = Jfr.AVAILABLE ? new OpenResourceEvent() : null;
+        if (event != null) {
+            event.begin();
+        }
+        ByteBuffer bytes = null;
+        try {
+            for (final Source source : this.sources()) {
+                bytes = source.map(path);
+                if (bytes != null) {
+                    bytes = bytes.asReadOnlyBuffer();
+                    break;
+                }
+            }
+        } catch (final IOException ignored) {
+            bytes = null;
+        }
+        if (event != null) {
+            event.finish(this, "mapResource", path, bytes != null);
+        }
+        return Optional.ofNullable(bytes);
+    }
+
+    @Override
+    public void visitResources(final String prefix, final Visitor visitor) {
+        Objects.requireNonNull(prefix, "prefix");
+        Objects.requireNonNull(visitor, "visitor");
+        for (final Source source : this.sources()) {
+            try {
+                if (!source.visit(prefix, visitor)) {
+                    return;
+                }
+            } catch (final IOException ex) {
+                throw new UncheckedIOException("Failed to enumerate " + this.paths, ex);
+            }
+        }
+    }
+
+    private @Nullable ByteBuffer read(final String path) throws IOException {
+        for (final Source source : this.sources()) {
+            final ByteBuffer bytes = source.read(path);
+            if (bytes != null) {
+                return bytes;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public @Nullable URI locateResourceOrNull(final String path) {
+        Objects.requireNonNull(path, "path");
+        for (final Source source : this.sources()) {
+            final URI uri = source.locate(path);
+            if (uri != null) {
+                return uri;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public Optional<InputStream> openResource(final String path) {
+        Objects.requireNonNull(path, "path");
+        final OpenResourceEvent event = Jfr.AVAILABLE ? new OpenResourceEvent() : null;
+        if (event != null) {
+            event.begin();
+        }
+        InputStream in = null;
+        try {
+            for (final Source source : this.sources()) {
+                in = source.open(path);
+                if (in != null) {
+                    break;
+                }
+            }
+        } catch (final IOException ignored) {
+            in = null;
+        }
+        if (event != null) {
+            event.finish(this, "openResource", path, in != null);
+        }
+        return Optional.ofNullable(in);
+    }
+
+    /**
+     * Closes the resource, dropping its indexes and cached manifest.
+     * <p>
+     * Afterwards every lookup returns {@link Optional#empty()} or {@code null}. Mappings are not released
+     * eagerly: buffers, streams and channels already obtained from the resource stay readable and keep their
+     * mapping alive until they are garbage collected.
+     */
+    @Override
+    public void close() {
+        this.lock.lock();
+        try {
+            this.sources = MappedJVMPluginResource.CLOSED;
+            this.manifest = null;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    private Source[] sources() {
+        Source[] sources = this.sources;
+        if (sources == null) {
+            this.lock.lock();
+            try {
+                sources = this.sources;
+                if (sources == null) {
+                    final List<Source> opened = new ArrayList<>(this.paths.size());
+                    for (final Path path : this.paths) {
+                        if (Files.isDirectory(path)) {
+                            opened.add(new DirectorySource(path.toAbsolutePath().normalize()));
+                        } else {
+                            try {
+                                opened.add(new JarSource(ZipIndex.open(path)));
+                            } catch (final IOException ex) {
+                                MappedJVMPluginResource.LOGGER.warn("Failed to index {}. It will be treated as empty.", path, ex);
+                            }
+                        }
+                    }
+                    sources = opened.toArray(Source[]::new);
+                    if (opened.size() > 1) {
+                        try {
+                            sources = new Source[] {UnionSource.of(opened)};
+                        } catch (final IOException ex) {
+                            // Looking through each source in turn gives the same answers, only more slowly
+                            MappedJVMPluginResource.LOGGER.warn("Failed to merge the indexes of {}", this.paths, ex);
+                        }
+                    }
+                    this.sources = sources;
+                }
+            } finally {
+                this.lock.unlock();
+            }
+        }
+        return sources;
+    }
+
+    @Override
+    public String toString() {
+        return new StringJoiner(", ", this.getClass().getSimpleName() + "[", "]")
+                .add("paths=" + this.paths)
+                .toString();
+    }
+
+    private interface Source {
+
+        @Nullable URI locate(String path);
+
+        @Nullable InputStream open(String path) throws IOException;
+
+        @Nullable ByteBuffer read(String path) throws IOException;
+
+        @Nullable ReadableByteChannel channel(String path) throws IOException;
+
+        /**
+         * Like {@link #read(String)}, but maps plain files instead of reading them into the heap.
+         */
+        @Nullable ByteBuffer map(String path) throws IOException;
+
+        boolean visit(String prefix, Visitor visitor) throws IOException;
+    }
+
+    private record JarSource(ZipIndex index) implements Source {
+
+        @Override
+        public @Nullable URI locate(final String path) {
+            final int entry = this.index.find(path);
+            return entry < 0 ? null : this.index.uri(entry);
+        }
+
+        @Override
+        public @Nullable InputStream open(final String path) throws IOException {
+            final int entry = this.index.find(path);
+            return entry < 0 ? null : this.index.open(entry);
+        }
+
+        @Override
+        public @Nullable ByteBuffer read(final String path) throws IOException {
+            final int entry = this.index.find(path);
+            return entry < 0 ? null : this.index.read(entry);
+        }
+
+        @Override
+        public @Nullable ReadableByteChannel channel(final String path) throws IOException {
+            final int entry = this.index.find(path);
+            return entry < 0 ? null : this.index.channel(entry);
+        }
+
+        @Override
+        public @Nullable ByteBuffer map(final String path) throws IOException {
+            return this.read(path);
+        }
+
+        @Override
+        public boolean visit(final String prefix, final Visitor visitor) {
+            for (int entry = 0; entry < this.index.size(); entry++) {
+                final String name = this.index.name(entry);
+                if (name != null && name.startsWith(prefix) && !name.endsWith("/") && this.index.find(name) == entry
+                        && !visitor.visit(name, this.index.uri(entry))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private record DirectorySource(Path root) implements Source {
+
+        boolean forEachFile(final Path start, final BiPredicate<String, Path> consumer) throws IOException {
+            final boolean[] completed = {true};
+            Files.walkFileTree(start, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult visitFile(final Path file, final BasicFileAttributes attributes) {
+                    if (attributes.isRegularFile()) {
+                        final StringJoiner name = new StringJoiner("/");
+                        for (final Path part : DirectorySource.this.root.relativize(file)) {
+                            name.add(part.toString());
+                        }
+                        if (!consumer.test(name.toString(), file)) {
+                            completed[0] = false;
+                            return FileVisitResult.TERMINATE;
+                        }
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+            return completed[0];
+        }
+
+        @Override
+        public boolean visit(final String prefix, final Visitor visitor) throws IOException {
+            final int slash = prefix.lastIndexOf('/');
+            final Path start = slash < 0 ? this.root : this.root.resolve(prefix.substring(0, slash)).normalize();
+            if (!start.startsWith(this.root) || !Files.isDirectory(start)) {
+                return true;
+            }
+            return this.forEachFile(start, (name, file) -> !name.startsWith(prefix) || visitor.visit(name, file.toUri()));
+        }
+
+        private @Nullable Path resolve(final String path) {
+            final Path resolved = this.root.resolve(path).normalize();
+            return resolved.startsWith(this.root) && Files.isRegularFile(resolved) ? resolved : null;
+        }
+
+        @Override
+        public @Nullable URI locate(final String path) {
+            final Path resolved = this.resolve(path);
+            return resolved == null ? null : resolved.toUri();
+        }
+
+        @Override
+        public @Nullable InputStream open(final String path) throws IOException {
+            final Path resolved = this.resolve(path);
+            return resolved == null ? null : Files.newInputStream(resolved);
+        }
+
+        @Override
+        public @Nullable ByteBuffer read(final String path) throws IOException {
+            final Path resolved = this.resolve(path);
+            return resolved == null ? null : ByteBuffer.wrap(Files.readAllBytes(resolved));
+        }
+
+        @Override
+        public @Nullable ReadableByteChannel channel(final String path) throws IOException {
+            final Path resolved = this.resolve(path);
+            return resolved == null ? null : FileChannel.open(resolved);
+        }
+
+        @Override
+        public @Nullable ByteBuffer map(final String path) throws IOException {
+            final Path resolved = this.resolve(path);
+            return resolved == null ? null : FileLocation.map(resolved);
+        }
+    }
+
+    /**
+     * The merged entries of several sources, each mapped to the source that provides it first.
+     */
+    private record UnionSource(Map<String, Location> locations) implements Source {
+
+        static UnionSource of(final List<Source> sources) throws IOException {
+            final Map<String, Location> locations = new HashMap<>();
+            for (final Source source : sources) {
+                if (source instanceof final JarSource jar) {
+                    final ZipIndex index = jar.index();
+                    for (int entry = 0; entry < index.size(); entry++) {
+                        final String name = index.name(entry);
+                        if (name != null) {
+                            locations.putIfAbsent(name, new JarLocation(index, entry));
+                        }
+                    }
+                } else if (source instanceof final DirectorySource directory) {
+                    directory.forEachFile(directory.root(), (name, file) -> {
+                        locations.putIfAbsent(name, new FileLocation(file));
+                        return true;
+                    });
+                }
+            }
+            return new UnionSource(locations);
+        }
+
+        @Override
+        public @Nullable URI locate(final String path) {
+            final Location location = this.locations.get(path);
+            return location == null ? null : location.uri();
+        }
+
+        @Override
+        public @Nullable InputStream open(final String path) throws IOException {
+            final Location location = this.locations.get(path);
+            return location == null ? null : location.open();
+        }
+
+        @Override
+        public @Nullable ByteBuffer read(final String path) throws IOException {
+            final Location location = this.locations.get(path);
+            return location == null ? null : location.read();
+        }
+
+        @Override
+        public @Nullable ReadableByteChannel channel(final String path) throws IOException {
+            final Location location = this.locations.get(path);
+            return location == null ? null : location.channel();
+        }
+
+        @Override
+        public @Nullable ByteBuffer map(final String path) throws IOException {
+            final Location location = this.locations.get(path);
+            return location == null ? null : location.map();
+        }
+
+        @Override
+        public boolean visit(final String prefix, final Visitor visitor) {
+            for (final Map.Entry<String, Location> entry : this.locations.entrySet()) {
+                if (entry.getKey().startsWith(prefix) && !entry.getKey().endsWith("/") && !visitor.visit(entry.getKey(), entry.getValue().uri())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private sealed interface Location permits JarLocation, FileLocation {
+
+        URI uri();
+
+        InputStream open() throws IOException;
+
+        ByteBuffer read() throws IOException;
+
+        ReadableByteChannel channel() throws IOException;
+
+        ByteBuffer map() throws IOException;
+    }
+
+    private record JarLocation(ZipIndex index, int entry) implements Location {
+
+        @Override
+        public URI uri() {
+            return this.index.uri(this.entry);
+        }
+
+        @Override
+        public InputStream open() throws IOException {
+            return this.index.open(this.entry);
+        }
+
+        @Override
+        public ByteBuffer read() throws IOException {
+            return this.index.read(this.entry);
+        }
+
+        @Override
+        public ReadableByteChannel channel() throws IOException {
+            return this.index.channel(this.entry);
+        }
+
+        @Override
+        public ByteBuffer map() throws IOException {
+            return this.index.read(this.entry);
+        }
+    }
+
+    private record FileLocation(Path file) implements Location {
+
+        @Override
+        public URI uri() {
+            return this.file.toUri();
+        }
+
+        @Override
+        public InputStream open() throws IOException {
+            return Files.newInputStream(this.file);
+        }
+
+        @Override
+        public ByteBuffer read() throws IOException {
+            return ByteBuffer.wrap(Files.readAllBytes(this.file));
+        }
+
+        @Override
+        public ReadableByteChannel channel() throws IOException {
+            return FileChannel.open(this.file);
+        }
+
+        @Override
+        public ByteBuffer map() throws IOException {
+            return FileLocation.map(this.file);
+        }
+
+        static ByteBuffer map(final Path file) throws IOException {
+            try (final FileChannel channel = FileChannel.open(file)) {
+                return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+        }
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * This file is part of plugin-spi, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.plugin.builtin.jvm;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.spongepowered.plugin.PluginContainer;
+import org.spongepowered.plugin.builtin.PluginRegistry;
+
+import java.lang.module.ModuleReference;
+import java.lang.module.ResolvedModule;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.FileSystemNotFoundException;
+import java.nio.file.Path;
+import java.security.CodeSource;
+import java.security.ProtectionDomain;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves which {@link PluginContainer plugin} owns a {@link Class class}, {@link Module module} or
+ * {@link StackWalker.StackFrame stack frame}.
+ * <p>
+ * A class is owned by the plugin whose resource path contains the location the class was loaded from, as
+ * given by its {@link CodeSource code source}; a named module by the plugin whose resource path contains its
+ * module reference location. Where one resource holds several plugins, the first registered owns it. Classes
+ * with no such location, such as those of the JDK, have no owner.
+ * <p>
+ * Owners are cached per class in a {@link ClassValue}, so after the first lookup of a class, later lookups do
+ * not touch its protection domain or the registry again. Resolvers are thread-safe.
+ */
+public final class PluginOwnerResolver {
+
+    private static final StackWalker WALKER = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
+
+    private final PluginRegistry registry;
+    private final ClassValue<Optional<PluginContainer>> classes = new ClassValue<>() {
+        @Override
+        protected Optional<PluginContainer> computeValue(final Class<?> type) {
+            return Optional.ofNullable(PluginOwnerResolver.this.resolve(type));
+        }
+    };
+    private final Map<Module, Optional<PluginContainer>> modules = new ConcurrentHashMap<>();
+
+    public PluginOwnerResolver(final PluginRegistry registry) {
+        this.registry = Objects.requireNonNull(registry, "registry");
+    }
+
+    /**
+     * @return The registry owners are resolved from
+     */
+    public PluginRegistry registry() {
+        return this.registry;
+    }
+
+    /**
+     * @param type The class
+     * @return The owning plugin, or {@code null} if no plugin owns the class
+     */
+    public @Nullable PluginContainer owner(final Class<?> type) {
+        return this.classes.get(type).orElse(null);
+    }
+
+    /**
+     * @param module The module
+     * @return The owning plugin, or {@code null} if the module is unnamed or no plugin owns it
+     */
+    public @Nullable PluginContainer owner(final Module module) {
+        if (!module.isNamed()) {
+            return null;
+        }
+        return this.modules.computeIfAbsent(module, key -> Optional.ofNullable(this.resolve(key))).orElse(null);
+    }
+
+    /**
+     * Resolves the owner of the class declaring a frame. The frame must come from a {@link StackWalker} retaining
+     * class references.
+     *
+     * @param frame The frame
+     * @return The owning plugin, or {@code null} if no plugin owns the declaring class
+     */
+    public @Nullable PluginContainer owner(final StackWalker.StackFrame frame) {
+        return this.owner(frame.getDeclaringClass());
+    }
+
+    /**
+     * Finds the plugin owning the innermost frame of the current thread's stack that any plugin owns.
+     *
+     * @return The owning plugin, if any plugin code is on the stack
+     */
+    public Optional<PluginContainer> caller() {
+        return PluginOwnerResolver.WALKER.walk(frames -> frames
+                .map(frame -> this.classes.get(frame.getDeclaringClass()))
+                .flatMap(Optional::stream)
+                .findFirst());
+    }
+
+    private @Nullable PluginContainer resolve(final Class<?> type) {
+        Class<?> element = type;
+        while (element.isArray()) {
+            element = element.getComponentType();
+        }
+        if (element.isPrimitive()) {
+            return null;
+        }
+        if (element != type) {
+            return this.owner(element);
+        }
+
+        final ProtectionDomain domain = type.getProtectionDomain();
+        final CodeSource source = domain == null ? null : domain.getCodeSource();
+        final URL location = source == null ? null : source.getLocation();
+        if (location == null) {
+            return null;
+        }
+        try {
+            return this.resolve(location.toURI());
+        } catch (final URISyntaxException ignored) {
+            return null;
+        }
+    }
+
+    private @Nullable PluginContainer resolve(final Module module) {
+        final ModuleLayer layer = module.getLayer();
+        if (layer == null) {
+            return null;
+        }
+        return layer.configuration().findModule(module.getName())
+                .map(ResolvedModule::reference)
+                .flatMap(ModuleReference::location)
+                .map(this::resolve)
+                .orElse(null);
+    }
+
+    private @Nullable PluginContainer resolve(final URI location) {
+        URI uri = location;
+        if ("jar".equals(uri.getScheme())) {
+            // jar:file:/path/to/plugin.jar!/entry
+            final String inner = uri.getRawSchemeSpecificPart();
+            final int separator = inner.indexOf("!/");
+            uri = URI.create(separator < 0 ? inner : inner.substring(0, separator));
+        }
+        final Path path;
+        try {
+            path = Path.of(uri);
+        } catch (final IllegalArgumentException | FileSystemNotFoundException ignored) {
+            return null;
+        }
+        final List<PluginContainer> owners = this.registry.byPath(path);
+        return owners.isEmpty() ? null : owners.getFirst();
+    }
+}
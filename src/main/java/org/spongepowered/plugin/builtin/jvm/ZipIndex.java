@@ -0,0 +1,509 @@
+/*
+ * This file is part of plugin-spi, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.plugin.builtin.jvm;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * A read-only view of a jar, memory-mapped and indexed from its central directory.
+ * <p>
+ * The central directory is parsed once into parallel arrays and an open-addressed table over entry
+ * names. Stored entries are served as slices of the mapping without copying; deflated entries are
+ * inflated from the mapping by {@link Inflater inflaters} taken from a shared pool.
+ * <p>
+ * The mapping is released once neither the index nor any buffer, stream or channel obtained from it is
+ * reachable any more, so that memory handed out can never be unmapped while it is still in use. Only a
+ * mapping that failed to index, and so was never handed out, is released straight away.
+ */
+final class ZipIndex {
+
+    private static final int LOCAL_HEADER = 0x04034b50;
+    private static final int CENTRAL_HEADER = 0x02014b50;
+    private static final int END_HEADER = 0x06054b50;
+    private static final int ZIP64_END_HEADER = 0x06064b50;
+    private static final int ZIP64_END_LOCATOR = 0x07064b50;
+    private static final int ZIP64_EXTRA = 0x0001;
+    private static final int END_HEADER_SIZE = 22;
+    private static final int CENTRAL_HEADER_SIZE = 46;
+    private static final int LOCAL_HEADER_SIZE = 30;
+    private static final int MAX_COMMENT_SIZE = 0xFFFF;
+    private static final long UINT32_MAX = 0xFFFFFFFFL;
+
+    static final int STORED = 0;
+    static final int DEFLATED = 8;
+
+    // sun.misc.Unsafe#invokeCleaner, the only way to release a mapping before it is collected until the
+    // foreign memory API can be used. Only used for mappings that were never handed out. Called reflectively, as core reflection does not need this module to
+    // read jdk.unsupported.
+    private static final @Nullable Object UNSAFE = ZipIndex.unsafe();
+    private static final @Nullable Method INVOKE_CLEANER = ZipIndex.UNSAFE == null ? null : ZipIndex.invokeCleaner(ZipIndex.UNSAFE);
+
+    private final Path path;
+    private final String uriPrefix;
+    private final ByteBuffer mapping;
+    private final String[] names;
+    private final int[] methods;
+    private final long[] offsets;
+    private final long[] compressedSizes;
+    private final long[] sizes;
+    private final int[] table;
+
+    private ZipIndex(final Path path, final MappedByteBuffer mapped, final int count) {
+        this.path = path;
+        this.uriPrefix = "jar:" + path.toUri() + "!/";
+        this.mapping = mapped.order(ByteOrder.LITTLE_ENDIAN);
+        this.names = new String[count];
+        this.methods = new int[count];
+        this.offsets = new long[count];
+        this.compressedSizes = new long[count];
+        this.sizes = new long[count];
+        this.table = new int[Integer.highestOneBit(Math.max(count, 1) * 2) << 1];
+    }
+
+    static ZipIndex open(final Path path) throws IOException {
+        final MappedByteBuffer mapping;
+        try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new ZipException("Jar is too large to be mapped: " + path);
+            }
+            mapping = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        try {
+            return ZipIndex.index(path, mapping);
+        } catch (final IndexOutOfBoundsException ex) {
+            ZipIndex.unmap(mapping);
+            throw new ZipException("Truncated central directory in " + path);
+        } catch (final IOException | RuntimeException ex) {
+            ZipIndex.unmap(mapping);
+            throw ex;
+        }
+    }
+
+    private static ZipIndex index(final Path path, final MappedByteBuffer mapping) throws IOException {
+        final ByteBuffer buffer = mapping.order(ByteOrder.LITTLE_ENDIAN);
+
+        final int end = ZipIndex.findEndHeader(buffer, path);
+        long count = Short.toUnsignedInt(buffer.getShort(end + 10));
+        long directoryOffset = Integer.toUnsignedLong(buffer.getInt(end + 16));
+        final int locator = end - 20;
+        if (locator >= 0 && buffer.getInt(locator) == ZipIndex.ZIP64_END_LOCATOR) {
+            final int zip64End = ZipIndex.checkedOffset(buffer.getLong(locator + 8), buffer, path);
+            if (buffer.getInt(zip64End) == ZipIndex.ZIP64_END_HEADER) {
+                count = buffer.getLong(zip64End + 32);
+                directoryOffset = buffer.getLong(zip64End + 48);
+            }
+        }
+        if (count < 0 || count > buffer.capacity() / ZipIndex.CENTRAL_HEADER_SIZE) {
+            throw new ZipException("Invalid entry count in " + path);
+        }
+
+        final ZipIndex index = new ZipIndex(path, mapping, (int) count);
+        int position = ZipIndex.checkedOffset(directoryOffset, buffer, path);
+        for (int i = 0; i < count; i++) {
+            if (position + ZipIndex.CENTRAL_HEADER_SIZE > buffer.capacity() || buffer.getInt(position) != ZipIndex.CENTRAL_HEADER) {
+                throw new ZipException("Invalid central directory in " + path);
+            }
+            final int flags = Short.toUnsignedInt(buffer.getShort(position + 8));
+            final int method = Short.toUnsignedInt(buffer.getShort(position + 10));
+            long compressedSize = Integer.toUnsignedLong(buffer.getInt(position + 20));
+            long size = Integer.toUnsignedLong(buffer.getInt(position + 24));
+            final int nameLength = Short.toUnsignedInt(buffer.getShort(position + 28));
+            final int extraLength = Short.toUnsignedInt(buffer.getShort(position + 30));
+            final int commentLength = Short.toUnsignedInt(buffer.getShort(position + 32));
+            long offset = Integer.toUnsignedLong(buffer.getInt(position + 42));
+
+            final int nameStart = position + ZipIndex.CENTRAL_HEADER_SIZE;
+            final int next = nameStart + nameLength + extraLength + commentLength;
+            if (next > buffer.capacity()) {
+                throw new ZipException("Invalid central directory in " + path);
+            }
+            final byte[] name = new byte[nameLength];
+            buffer.get(nameStart, name);
+
+            if (size == ZipIndex.UINT32_MAX || compressedSize == ZipIndex.UINT32_MAX || offset == ZipIndex.UINT32_MAX) {
+                int extra = nameStart + nameLength;
+                final int extraEnd = extra + extraLength;
+                while (extra + 4 <= extraEnd) {
+                    final int id = Short.toUnsignedInt(buffer.getShort(extra));
+                    final int length = Short.toUnsignedInt(buffer.getShort(extra + 2));
+                    if (id == ZipIndex.ZIP64_EXTRA) {
+                        int field = extra + 4;
+                        if (size == ZipIndex.UINT32_MAX) {
+                            size = buffer.getLong(field);
+                            field += 8;
+                        }
+                        if (compressedSize == ZipIndex.UINT32_MAX) {
+                            compressedSize = buffer.getLong(field);
+                            field += 8;
+                        }
+                        if (offset == ZipIndex.UINT32_MAX) {
+                            offset = buffer.getLong(field);
+                        }
+                        break;
+                    }
+                    extra += 4 + length;
+                }
+            }
+
+            // Encrypted entries cannot be served and are left out of the index
+            if ((flags & 1) == 0) {
+                index.add(i, new String(name, StandardCharsets.UTF_8), method, offset, compressedSize, size);
+            }
+            position = next;
+        }
+        return index;
+    }
+
+    private static @Nullable Object unsafe() {
+        try {
+            final Field field = Class.forName("sun.misc.Unsafe").getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            return field.get(null);
+        } catch (final ReflectiveOperationException | RuntimeException ignored) {
+            return null;
+        }
+    }
+
+    private static @Nullable Method invokeCleaner(final Object unsafe) {
+        try {
+            return unsafe.getClass().getMethod("invokeCleaner", ByteBuffer.class);
+        } catch (final ReflectiveOperationException | RuntimeException ignored) {
+            return null;
+        }
+    }
+
+    private static void unmap(final MappedByteBuffer mapping) {
+        if (ZipIndex.INVOKE_CLEANER == null) {
+            return;
+        }
+        try {
+            ZipIndex.INVOKE_CLEANER.invoke(ZipIndex.UNSAFE, mapping);
+        } catch (final ReflectiveOperationException | RuntimeException ignored) {
+            // Left to the garbage collector
+        }
+    }
+
+    private static int findEndHeader(final ByteBuffer buffer, final Path path) throws ZipException {
+        final int last = buffer.capacity() - ZipIndex.END_HEADER_SIZE;
+        final int first = Math.max(0, last - ZipIndex.MAX_COMMENT_SIZE);
+        for (int position = last; position >= first; position--) {
+            if (buffer.getInt(position) == ZipIndex.END_HEADER) {
+                return position;
+            }
+        }
+        throw new ZipException("Not a zip file: " + path);
+    }
+
+    private static int checkedOffset(final long offset, final ByteBuffer buffer, final Path path) throws ZipException {
+        if (offset < 0 || offset >= buffer.capacity()) {
+            throw new ZipException("Invalid offset in " + path);
+        }
+        return (int) offset;
+    }
+
+    private void add(final int entry, final String name, final int method, final long offset, final long compressedSize, final long size) {
+        this.names[entry] = name;
+        this.methods[entry] = method;
+        this.offsets[entry] = offset;
+        this.compressedSizes[entry] = compressedSize;
+        this.sizes[entry] = size;
+
+        final int mask = this.table.length - 1;
+        for (int slot = ZipIndex.spread(name.hashCode()) & mask; ; slot = (slot + 1) & mask) {
+            final int existing = this.table[slot] - 1;
+            if (existing < 0) {
+                this.table[slot] = entry + 1;
+                return;
+            }
+            // As with java.util.zip, the first entry of a duplicated name wins
+            if (this.names[existing].equals(name)) {
+                return;
+            }
+        }
+    }
+
+    private static int spread(final int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    Path path() {
+        return this.path;
+    }
+
+    int size() {
+        return this.names.length;
+    }
+
+    /**
+     * @param name The entry name
+     * @return The entry, or {@code -1} if the jar contains no such entry
+     */
+    int find(final String name) {
+        final int mask = this.table.length - 1;
+        for (int slot = ZipIndex.spread(name.hashCode()) & mask; ; slot = (slot + 1) & mask) {
+            final int entry = this.table[slot] - 1;
+            if (entry < 0) {
+                return -1;
+            }
+            if (this.names[entry].equals(name)) {
+                return entry;
+            }
+        }
+    }
+
+    /**
+     * @param entry The entry
+     * @return The entry name, or {@code null} if the entry is not indexed
+     */
+    String name(final int entry) {
+        return this.names[entry];
+    }
+
+    long size(final int entry) {
+        return this.sizes[entry];
+    }
+
+    URI uri(final int entry) {
+        try {
+            final String encoded = new URI(null, null, "/" + this.names[entry], null).getRawPath();
+            return new URI(this.uriPrefix + encoded.substring(1));
+        } catch (final URISyntaxException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * @param entry The entry
+     * @return The raw data of the entry, as stored in the jar
+     * @throws IOException if the entry's local header is invalid
+     */
+    ByteBuffer data(final int entry) throws IOException {
+        final int header = ZipIndex.checkedOffset(this.offsets[entry], this.mapping, this.path);
+        if (header + ZipIndex.LOCAL_HEADER_SIZE > this.mapping.capacity() || this.mapping.getInt(header) != ZipIndex.LOCAL_HEADER) {
+            throw new ZipException("Invalid local header for '" + this.names[entry] + "' in " + this.path);
+        }
+        final int start = header + ZipIndex.LOCAL_HEADER_SIZE
+                + Short.toUnsignedInt(this.mapping.getShort(header + 26))
+                + Short.toUnsignedInt(this.mapping.getShort(header + 28));
+        final long length = this.compressedSizes[entry];
+        if (start + length > this.mapping.capacity()) {
+            throw new ZipException("Truncated entry '" + this.names[entry] + "' in " + this.path);
+        }
+        return this.mapping.slice(start, (int) length).asReadOnlyBuffer();
+    }
+
+    InputStream open(final int entry) throws IOException {
+        final ByteBuffer data = this.data(entry);
+        return switch (this.methods[entry]) {
+            case ZipIndex.STORED -> new ByteBufferInputStream(data);
+            case ZipIndex.DEFLATED -> new InflatingInputStream(data);
+            default -> throw new ZipException("Unsupported compression method " + this.methods[entry] + " for '" + this.names[entry] + "' in " + this.path);
+        };
+    }
+
+    ReadableByteChannel channel(final int entry) throws IOException {
+        if (this.methods[entry] == ZipIndex.STORED) {
+            return new ByteBufferChannel(this.data(entry));
+        }
+        return Channels.newChannel(this.open(entry));
+    }
+
+    /**
+     * Reads an entry fully. Stored entries are returned as a read-only slice of the mapping.
+     *
+     * @param entry The entry
+     * @return The contents
+     * @throws IOException if the entry could not be read
+     */
+    ByteBuffer read(final int entry) throws IOException {
+        final ByteBuffer data = this.data(entry);
+        return switch (this.methods[entry]) {
+            case ZipIndex.STORED -> data;
+            case ZipIndex.DEFLATED -> {
+                if (this.sizes[entry] > Integer.MAX_VALUE) {
+                    throw new ZipException("Entry '" + this.names[entry] + "' is too large to be read into memory");
+                }
+                final ByteBuffer contents = ByteBuffer.allocate((int) this.sizes[entry]);
+                final Inflater inflater = InflaterPool.acquire();
+                try {
+                    inflater.setInput(data);
+                    while (contents.hasRemaining() && !inflater.finished()) {
+                        if (inflater.inflate(contents) == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                            throw new ZipException("Truncated entry '" + this.names[entry] + "' in " + this.path);
+                        }
+                    }
+                } catch (final DataFormatException ex) {
+                    throw new ZipException("Invalid deflate data for '" + this.names[entry] + "' in " + this.path + ": " + ex.getMessage());
+                } finally {
+                    InflaterPool.release(inflater);
+                }
+                yield contents.flip();
+            }
+            default -> throw new ZipException("Unsupported compression method " + this.methods[entry] + " for '" + this.names[entry] + "' in " + this.path);
+        };
+    }
+
+    private static final class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(final ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return this.buffer.hasRemaining() ? Byte.toUnsignedInt(this.buffer.get()) : -1;
+        }
+
+        @Override
+        public int read(final byte[] bytes, final int offset, final int length) {
+            if (length == 0) {
+                return 0;
+            }
+            if (!this.buffer.hasRemaining()) {
+                return -1;
+            }
+            final int read = Math.min(length, this.buffer.remaining());
+            this.buffer.get(bytes, offset, read);
+            return read;
+        }
+
+        @Override
+        public long skip(final long count) {
+            final int skipped = (int) Math.max(0, Math.min(count, this.buffer.remaining()));
+            this.buffer.position(this.buffer.position() + skipped);
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            return this.buffer.remaining();
+        }
+    }
+
+    private static final class ByteBufferChannel implements ReadableByteChannel {
+
+        private final ByteBuffer buffer;
+        private boolean open = true;
+
+        ByteBufferChannel(final ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read(final ByteBuffer destination) throws IOException {
+            if (!this.open) {
+                throw new ClosedChannelException();
+            }
+            if (!this.buffer.hasRemaining()) {
+                return -1;
+            }
+            final int read = Math.min(destination.remaining(), this.buffer.remaining());
+            destination.put(destination.position(), this.buffer, this.buffer.position(), read);
+            destination.position(destination.position() + read);
+            this.buffer.position(this.buffer.position() + read);
+            return read;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return this.open;
+        }
+
+        @Override
+        public void close() {
+            this.open = false;
+        }
+    }
+
+    private static final class InflatingInputStream extends InputStream {
+
+        private Inflater inflater;
+        private final byte[] single = new byte[1];
+
+        InflatingInputStream(final ByteBuffer data) {
+            this.inflater = InflaterPool.acquire();
+            this.inflater.setInput(data);
+        }
+
+        @Override
+        public int read() throws IOException {
+            return this.read(this.single, 0, 1) == -1 ? -1 : Byte.toUnsignedInt(this.single[0]);
+        }
+
+        @Override
+        public int read(final byte[] bytes, final int offset, final int length) throws IOException {
+            if (this.inflater == null) {
+                throw new IOException("Stream closed");
+            }
+            if (length == 0) {
+                return 0;
+            }
+            try {
+                int read;
+                while ((read = this.inflater.inflate(bytes, offset, length)) == 0) {
+                    if (this.inflater.finished() || this.inflater.needsInput()) {
+                        return -1;
+                    }
+                    if (this.inflater.needsDictionary()) {
+                        throw new ZipException("Deflate data requires a preset dictionary");
+                    }
+                }
+                return read;
+            } catch (final DataFormatException ex) {
+                throw new ZipException("Invalid deflate data: " + ex.getMessage());
+            }
+        }
+
+        @Override
+        public void close() {
+            if (this.inflater != null) {
+                InflaterPool.release(this.inflater);
+                this.inflater = null;
+            }
+        }
+    }
+}
@@ -33,13 +33,15 @@ import org.spongepowered.plugin.discovery.UnknownResourceStrategy;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Stream;
 
 public final class DirectoryPluginResourceLocator implements PluginResourceLocator {
 
@@ -50,27 +52,67 @@ public final class DirectoryPluginResourceLocator implements PluginResourceLocat
 
     @Override
     public Collection<Result> locatePluginResources(final Environment environment) {
+        return this.locate(environment).results();
+    }
+
+    /**
+     * Locates jars in the plugin directories, keeping the attributes the walks read along the way.
+     *
+     * @param environment The environment
+     * @return The results, along with the attributes of every directory listed and jar found
+     */
+    Located locate(final Environment environment) {
         final Optional<List<Path>> dirs = environment.blackboard().find(Keys.PLUGIN_DIRECTORIES);
         if (dirs.isEmpty()) {
             environment.logger().debug("Locator '{}' is disabled.", this.name());
-            return Collections.emptySet();
+            return new Located(Collections.emptySet(), Map.of());
         }
 
+        final int maxDepth = environment.blackboard().getInt(Keys.PLUGIN_DIRECTORY_MAX_DEPTH, Integer.MAX_VALUE);
+        final List<String> excludes = environment.blackboard().getOrDefault(Keys.PLUGIN_DIRECTORY_EXCLUDES, List.of());
+
         final Set<Result> results = new HashSet<>();
+        final Map<Path, BasicFileAttributes> attributes = new HashMap<>();
         for (final Path pluginsDir : dirs.get()) {
             if (Files.notExists(pluginsDir)) {
                 environment.logger().debug("Plugin directory '{}' does not exist. Skipping...", pluginsDir);
                 continue;
             }
 
-            try (final Stream<Path> st = Files.walk(pluginsDir)) {
-                st.filter(path -> Files.isRegularFile(path) && path.getFileName().toString().endsWith(".jar"))
-                        .map(path -> new Result(JVMPluginResource.create(environment, path), UnknownResourceStrategy.WARN))
-                        .forEach(results::add);
-            } catch (final IOException ex) {
+            final DirectoryWalker.Walk walk = DirectoryWalker.walk(pluginsDir, maxDepth, excludes);
+            for (final IOException ex : walk.failures()) {
                 environment.logger().error("Error walking plugins directory {}", pluginsDir, ex);
             }
+            for (final Path path : walk.jars()) {
+                results.add(new Result(JVMPluginResource.create(environment, path), UnknownResourceStrategy.WARN));
+            }
+            attributes.putAll(walk.attributes());
         }
-        return results;
+        return new Located(results, attributes);
+    }
+
+    /**
+     * Locates jars in the plugin directories and keeps watching them for changes.
+     * <p>
+     * The initial set of jars is available through {@link DirectoryPluginResourceWatcher#results()};
+     * subsequent changes are reported as {@link DirectoryPluginResourceWatcher.Delta deltas}, so only the
+     * affected jars need their metadata read again.
+     *
+     * @param environment The environment
+     * @return The watcher, which must be closed once no longer needed
+     * @throws IOException if the watch service could not be created
+     */
+    public DirectoryPluginResourceWatcher watch(final Environment environment) throws IOException {
+        final List<Path> dirs = environment.blackboard().getOrDefault(Keys.PLUGIN_DIRECTORIES, List.of());
+        final int maxDepth = environment.blackboard().getInt(Keys.PLUGIN_DIRECTORY_MAX_DEPTH, Integer.MAX_VALUE);
+        final List<String> excludes = environment.blackboard().getOrDefault(Keys.PLUGIN_DIRECTORY_EXCLUDES, List.of());
+        return new DirectoryPluginResourceWatcher(environment, dirs, maxDepth, excludes);
+    }
+
+    /**
+     * @param results The results
+     * @param attributes The attributes of every directory listed and jar found, as read during the walk
+     */
+    record Located(Collection<Result> results, Map<Path, BasicFileAttributes> attributes) {
     }
 }
@@ -0,0 +1,337 @@
+/*
+ * This file is part of plugin-spi, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.plugin.builtin.jvm.locator;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.spongepowered.plugin.Environment;
+import org.spongepowered.plugin.builtin.jvm.JVMPluginResource;
+import org.spongepowered.plugin.discovery.PluginResourceLocator;
+import org.spongepowered.plugin.discovery.UnknownResourceStrategy;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches the directories of a {@link DirectoryPluginResourceLocator} and reports jars that were added,
+ * removed or modified since the last poll.
+ * <p>
+ * Events only mark paths as touched; when a batch is drained, each touched path is compared against the
+ * size, modification time and file key the jar had when last reported, so a jar that is written several
+ * times in a batch is reported once, one that is created and deleted again is not reported at all and one
+ * that was only touched without changing is not reported either. If the watch service overflows, every
+ * plugin directory is rescanned, and only the jars that actually changed are reported.
+ * <p>
+ * Directories created under a plugin directory are walked with the same depth limit and excludes as the
+ * plugin directory itself.
+ * <p>
+ * The resources of {@link Delta.Kind#REMOVED removed} jars and the {@link Delta#previous() previous}
+ * resources of {@link Delta.Kind#MODIFIED modified} jars are no longer known to the watcher, and should be
+ * closed by the caller once it has finished with them, where they are {@link AutoCloseable}. Closing the
+ * watcher closes the resources of every jar it still knows.
+ * <p>
+ * A watcher is intended to be polled from a single thread.
+ */
+public final class DirectoryPluginResourceWatcher implements AutoCloseable {
+
+    private final Environment environment;
+    private final int maxDepth;
+    private final Collection<String> excludes;
+    private final List<Path> roots = new ArrayList<>();
+    private final @Nullable WatchService service;
+    private final Map<WatchKey, Watched> watched = new HashMap<>();
+    private final Map<Path, Known> known = new LinkedHashMap<>();
+
+    DirectoryPluginResourceWatcher(final Environment environment, final List<Path> roots, final int maxDepth, final Collection<String> excludes)
+            throws IOException {
+        this.environment = environment;
+        this.maxDepth = maxDepth;
+        this.excludes = excludes;
+        this.service = roots.isEmpty() ? null : roots.getFirst().getFileSystem().newWatchService();
+        for (final Path root : roots) {
+            if (Files.notExists(root)) {
+                environment.logger().debug("Plugin directory '{}' does not exist. Skipping...", root);
+                continue;
+            }
+            this.roots.add(root);
+            for (final Path jar : this.scan(root, root)) {
+                final BasicFileAttributes attributes = this.jarAttributes(jar);
+                if (attributes != null) {
+                    this.known.put(jar, new Known(this.result(jar), attributes));
+                }
+            }
+        }
+    }
+
+    /**
+     * @return The jars currently known to the watcher
+     */
+    public Collection<PluginResourceLocator.Result> results() {
+        final List<PluginResourceLocator.Result> results = new ArrayList<>(this.known.size());
+        for (final Known known : this.known.values()) {
+            results.add(known.result());
+        }
+        return List.copyOf(results);
+    }
+
+    /**
+     * Retrieves the changes that are pending, without waiting.
+     *
+     * @return The {@link Delta changes}, possibly empty
+     */
+    public List<Delta> poll() {
+        if (this.service == null) {
+            return List.of();
+        }
+        final Set<Path> touched = new LinkedHashSet<>();
+        WatchKey key;
+        while ((key = this.service.poll()) != null) {
+            this.process(key, touched);
+        }
+        return this.resolve(touched);
+    }
+
+    /**
+     * Waits for changes, then retrieves all that are pending.
+     *
+     * @param timeout How long to wait
+     * @param unit The unit of {@code timeout}
+     * @return The {@link Delta changes}, empty if none arrived in time
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public List<Delta> poll(final long timeout, final TimeUnit unit) throws InterruptedException {
+        if (this.service == null) {
+            unit.sleep(timeout);
+            return List.of();
+        }
+        final long deadline = System.nanoTime() + unit.toNanos(timeout);
+        final Set<Path> touched = new LinkedHashSet<>();
+        WatchKey key = this.service.poll(timeout, unit);
+        while (key != null) {
+            this.process(key, touched);
+            key = this.service.poll();
+            if (key == null && touched.isEmpty()) {
+                final long remaining = deadline - System.nanoTime();
+                if (remaining > 0) {
+                    key = this.service.poll(remaining, TimeUnit.NANOSECONDS);
+                }
+            }
+        }
+        return this.resolve(touched);
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (final Known known : this.known.values()) {
+            if (known.result().resource() instanceof final AutoCloseable resource) {
+                try {
+                    resource.close();
+                } catch (final Exception ex) {
+                    this.environment.logger().warn("Failed to close plugin resource {}", known.result().resource(), ex);
+                }
+            }
+        }
+        this.known.clear();
+        if (this.service != null) {
+            this.service.close();
+        }
+    }
+
+    private List<Path> scan(final Path root, final Path start) {
+        final DirectoryWalker.Walk walk = DirectoryWalker.walk(root, start, this.maxDepth, this.excludes);
+        for (final IOException ex : walk.failures()) {
+            this.environment.logger().error("Error walking plugins directory {}", root, ex);
+        }
+        for (final Path directory : walk.directories()) {
+            try {
+                final WatchKey key = directory.register(this.service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_DELETE,
+                        StandardWatchEventKinds.ENTRY_MODIFY);
+                this.watched.put(key, new Watched(root, directory));
+            } catch (final IOException ex) {
+                this.environment.logger().error("Failed to watch plugins directory {}", directory, ex);
+            }
+        }
+        return walk.jars();
+    }
+
+    private void process(final WatchKey key, final Set<Path> touched) {
+        final Watched watched = this.watched.get(key);
+        for (final WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                this.rescan(touched);
+                continue;
+            }
+            if (watched == null) {
+                continue;
+            }
+            final Path path = watched.directory.resolve((Path) event.context());
+            if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(path)) {
+                touched.addAll(this.scan(watched.root, path));
+            } else if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE) {
+                for (final Path jar : this.known.keySet()) {
+                    if (jar.startsWith(path)) {
+                        touched.add(jar);
+                    }
+                }
+            } else {
+                touched.add(path);
+            }
+        }
+        if (!key.reset()) {
+            this.watched.remove(key);
+        }
+    }
+
+    private void rescan(final Set<Path> touched) {
+        touched.addAll(this.known.keySet());
+        for (final Iterator<WatchKey> it = this.watched.keySet().iterator(); it.hasNext(); ) {
+            it.next().cancel();
+            it.remove();
+        }
+        for (final Path root : this.roots) {
+            touched.addAll(this.scan(root, root));
+        }
+    }
+
+    private List<Delta> resolve(final Set<Path> touched) {
+        final List<Delta> deltas = new ArrayList<>();
+        for (final Path path : touched) {
+            final Known previous = this.known.get(path);
+            final BasicFileAttributes attributes = this.jarAttributes(path);
+            if (attributes != null) {
+                if (previous != null && previous.matches(attributes)) {
+                    continue;
+                }
+                final PluginResourceLocator.Result result = this.result(path);
+                this.known.put(path, new Known(result, attributes));
+                if (previous == null) {
+                    deltas.add(new Delta(Delta.Kind.ADDED, result, null));
+                } else {
+                    deltas.add(new Delta(Delta.Kind.MODIFIED, result, previous.result()));
+                }
+            } else if (previous != null) {
+                this.known.remove(path);
+                deltas.add(new Delta(Delta.Kind.REMOVED, previous.result(), null));
+            }
+        }
+        return deltas;
+    }
+
+    private @Nullable BasicFileAttributes jarAttributes(final Path path) {
+        if (!path.getFileName().toString().endsWith(".jar")) {
+            return null;
+        }
+        final Path root = this.rootOf(path);
+        if (root == null || DirectoryWalker.depth(root, path) > this.maxDepth) {
+            return null;
+        }
+        final List<PathMatcher> excludes = DirectoryWalker.matchers(root, this.excludes);
+        for (Path current = path; current != null && !current.equals(root); current = current.getParent()) {
+            if (DirectoryWalker.excluded(root, excludes, current)) {
+                return null;
+            }
+        }
+        try {
+            final BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            return attributes.isRegularFile() ? attributes : null;
+        } catch (final IOException ignored) {
+            return null;
+        }
+    }
+
+    private @Nullable Path rootOf(final Path path) {
+        for (final Path root : this.roots) {
+            if (path.startsWith(root)) {
+                return root;
+            }
+        }
+        return null;
+    }
+
+    private PluginResourceLocator.Result result(final Path jar) {
+        return new PluginResourceLocator.Result(JVMPluginResource.create(this.environment, jar), UnknownResourceStrategy.WARN);
+    }
+
+    private record Watched(Path root, Path directory) {
+    }
+
+    /**
+     * A jar as it was when last reported.
+     */
+    private record Known(PluginResourceLocator.Result result, long size, long modified, @Nullable Object fileKey) {
+
+        Known(final PluginResourceLocator.Result result, final BasicFileAttributes attributes) {
+            this(result, attributes.size(), attributes.lastModifiedTime().to(TimeUnit.NANOSECONDS), attributes.fileKey());
+        }
+
+        boolean matches(final BasicFileAttributes attributes) {
+            return this.size == attributes.size()
+                    && this.modified == attributes.lastModifiedTime().to(TimeUnit.NANOSECONDS)
+                    && Objects.equals(this.fileKey, attributes.fileKey());
+        }
+    }
+
+    /**
+     * A change to a jar in a watched directory.
+     *
+     * @param kind The kind of change
+     * @param result The result for the jar; for {@link Kind#REMOVED} this is the result previously reported
+     * @param previous For {@link Kind#MODIFIED}, the result previously reported for the jar, which the caller
+     *     should close once it has finished with it; otherwise {@code null}
+     */
+    public record Delta(Kind kind, PluginResourceLocator.Result result, PluginResourceLocator.@Nullable Result previous) {
+
+        public Delta {
+            Objects.requireNonNull(kind, "kind");
+            Objects.requireNonNull(result, "result");
+            if ((kind == Kind.MODIFIED) != (previous != null)) {
+                throw new IllegalArgumentException("A previous result is required for, and only for, modified jars");
+            }
+        }
+
+        public enum Kind {
+            ADDED,
+            REMOVED,
+            MODIFIED
+        }
+    }
+}
@@ -0,0 +1,227 @@
+/*
+ * This file is part of plugin-spi, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.plugin.builtin.jvm.locator;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.io.IOException;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Walks a plugin directory for jars, one fork-join task per directory.
+ * <p>
+ * Each task lists its directory through {@link Files#walkFileTree} with a depth of one, so every entry
+ * arrives with the attributes read while listing and no further stat call is needed, except to resolve
+ * symbolic links. The attributes are kept with the walk, so that callers can tell later whether anything
+ * changed since it was read. Subdirectories are forked as tasks of their own.
+ * <p>
+ * Walks run on a pool of their own rather than the common pool, as listing a directory blocks, for a long
+ * time on a slow network mount, and would otherwise hold up unrelated tasks in the common pool.
+ */
+final class DirectoryWalker {
+
+    private final Path root;
+    private final int maxDepth;
+    private final List<PathMatcher> excludes;
+    private final Queue<Path> jars = new ConcurrentLinkedQueue<>();
+    private final Queue<Path> directories = new ConcurrentLinkedQueue<>();
+    private final Map<Path, BasicFileAttributes> attributes = new ConcurrentHashMap<>();
+    private final Queue<IOException> failures = new ConcurrentLinkedQueue<>();
+
+    private DirectoryWalker(final Path root, final int maxDepth, final List<PathMatcher> excludes) {
+        this.root = root;
+        this.maxDepth = maxDepth;
+        this.excludes = excludes;
+    }
+
+    /**
+     * Walks a directory.
+     *
+     * @param root The directory
+     * @param maxDepth The maximum depth of the jars found, as for {@link Files#walk(Path, int, FileVisitOption...)}
+     * @param excludes Globs of paths, relative to the directory, that are not visited
+     * @return The result of the walk
+     */
+    static Walk walk(final Path root, final int maxDepth, final Collection<String> excludes) {
+        return DirectoryWalker.walk(root, root, maxDepth, excludes);
+    }
+
+    /**
+     * Walks a subdirectory of a plugin directory, applying depth and excludes as if walking from the plugin directory.
+     *
+     * @param root The plugin directory
+     * @param start The subdirectory to start from
+     * @param maxDepth The maximum depth of the jars found, relative to {@code root}
+     * @param excludes Globs of paths, relative to {@code root}, that are not visited
+     * @return The result of the walk
+     */
+    static Walk walk(final Path root, final Path start, final int maxDepth, final Collection<String> excludes) {
+        final DirectoryWalker walker = new DirectoryWalker(root, maxDepth, DirectoryWalker.matchers(root, excludes));
+        final int depth = DirectoryWalker.depth(root, start);
+        if (depth >= maxDepth) {
+            return new Walk(List.of(), List.of(), Map.of(), List.of());
+        }
+        for (Path current = start; current != null && !current.equals(root); current = current.getParent()) {
+            if (walker.excluded(current)) {
+                return new Walk(List.of(), List.of(), Map.of(), List.of());
+            }
+        }
+        walker.directories.add(start);
+        try {
+            walker.attributes.put(start, Files.readAttributes(start, BasicFileAttributes.class));
+        } catch (final IOException ignored) {
+            // Reported by the task listing it
+        }
+        Pool.INSTANCE.invoke(walker.new DirectoryTask(start, depth));
+        return new Walk(List.copyOf(walker.jars), List.copyOf(walker.directories), Map.copyOf(walker.attributes), List.copyOf(walker.failures));
+    }
+
+    static List<PathMatcher> matchers(final Path root, final Collection<String> excludes) {
+        final List<PathMatcher> matchers = new ArrayList<>(excludes.size());
+        for (final String glob : excludes) {
+            matchers.add(root.getFileSystem().getPathMatcher("glob:" + glob));
+        }
+        return matchers;
+    }
+
+    static boolean excluded(final Path root, final List<PathMatcher> excludes, final Path path) {
+        if (excludes.isEmpty()) {
+            return false;
+        }
+        final Path relative = root.relativize(path);
+        for (final PathMatcher matcher : excludes) {
+            if (matcher.matches(relative)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static int depth(final Path root, final Path path) {
+        return path.equals(root) ? 0 : root.relativize(path).getNameCount();
+    }
+
+    private boolean excluded(final Path path) {
+        return DirectoryWalker.excluded(this.root, this.excludes, path);
+    }
+
+    private static @Nullable BasicFileAttributes target(final Path link) {
+        try {
+            return Files.readAttributes(link, BasicFileAttributes.class);
+        } catch (final IOException ignored) {
+            return null;
+        }
+    }
+
+    /**
+     * @param jars The jars found
+     * @param directories The directories listed, including the starting directory unless it is excluded or
+     *     too deep for any jar below it to be found
+     * @param attributes The attributes of the directories listed and the jars found, as read before each
+     *     directory was listed, following links to jars
+     * @param failures The errors encountered while listing directories
+     */
+    record Walk(List<Path> jars, List<Path> directories, Map<Path, BasicFileAttributes> attributes, List<IOException> failures) {
+    }
+
+    private static final class Pool {
+
+        static final ForkJoinPool INSTANCE = new ForkJoinPool(Math.max(2, Runtime.getRuntime().availableProcessors() * 2), pool -> {
+            final ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("plugin-directory-walker-" + thread.getPoolIndex());
+            thread.setDaemon(true);
+            return thread;
+        }, null, false);
+    }
+
+    @SuppressWarnings("serial")
+    private final class DirectoryTask extends RecursiveAction {
+
+        private final Path directory;
+        private final int depth;
+
+        DirectoryTask(final Path directory, final int depth) {
+            this.directory = directory;
+            this.depth = depth;
+        }
+
+        @Override
+        protected void compute() {
+            final DirectoryWalker walker = DirectoryWalker.this;
+            final List<DirectoryTask> subtasks = new ArrayList<>();
+            try {
+                Files.walkFileTree(this.directory, EnumSet.noneOf(FileVisitOption.class), 1, new SimpleFileVisitor<>() {
+                    @Override
+                    public FileVisitResult visitFile(final Path file, final BasicFileAttributes attributes) {
+                        if (walker.excluded(file)) {
+                            return FileVisitResult.CONTINUE;
+                        }
+                        if (attributes.isDirectory()) {
+                            if (DirectoryTask.this.depth + 1 < walker.maxDepth) {
+                                walker.directories.add(file);
+                                walker.attributes.put(file, attributes);
+                                subtasks.add(new DirectoryTask(file, DirectoryTask.this.depth + 1));
+                            }
+                        } else if (file.getFileName().toString().endsWith(".jar")) {
+                            final BasicFileAttributes target = attributes.isSymbolicLink() ? DirectoryWalker.target(file) : attributes;
+                            if (target != null && target.isRegularFile()) {
+                                walker.jars.add(file);
+                                walker.attributes.put(file, target);
+                            }
+                        }
+                        return FileVisitResult.CONTINUE;
+                    }
+
+                    @Override
+                    public FileVisitResult visitFileFailed(final Path file, final IOException ex) {
+                        walker.failures.add(ex);
+                        return FileVisitResult.CONTINUE;
+                    }
+                });
+            } catch (final IOException ex) {
+                walker.failures.add(ex);
+            }
+            ForkJoinTask.invokeAll(subtasks);
+        }
+    }
+}
@@ -0,0 +1,435 @@
+/*
+ * This file is part of plugin-spi, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.plugin.builtin.jvm.locator;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.spongepowered.plugin.Environment;
+import org.spongepowered.plugin.blackboard.Keys;
+import org.spongepowered.plugin.builtin.jvm.JVMKeys;
+import org.spongepowered.plugin.builtin.jvm.JVMPluginResource;
+import org.spongepowered.plugin.discovery.DiscoveredResource;
+import org.spongepowered.plugin.discovery.PluginResourceDiscovery;
+import org.spongepowered.plugin.discovery.PluginResourceLocator;
+import org.spongepowered.plugin.discovery.UnknownResourceStrategy;
+import org.spongepowered.plugin.internal.DelegatingLocator;
+import org.spongepowered.plugin.internal.Futures;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Locates resources like {@link PluginResourceDiscovery}, but records what the built-in locators found in a
+ * snapshot file, set under {@link JVMKeys#DISCOVERY_SNAPSHOT_FILE} and resolved against
+ * {@link Keys#BASE_DIRECTORY} when relative, and reuses it on the next run when nothing has changed.
+ * <p>
+ * For the {@link EnvironmentPluginResourceLocator environment} and {@link DirectoryPluginResourceLocator directory}
+ * locators the snapshot holds their results together with what they were derived from: the value of the
+ * environment variable or the plugin directory settings, and the size and modification time of every located
+ * file as well as the modification time of every directory walked. These are read before or while the locator
+ * runs, never after, so that a change made while locating is seen on the next run. When all of them are
+ * unchanged, the results are recreated through {@link JVMKeys#JVM_PLUGIN_RESOURCE_FACTORY} without walking
+ * directories; the stamps are checked with one file status query each. Other locators, including the
+ * {@link ClasspathPluginResourceLocator class path} locator, always run, and any locator whose inputs changed
+ * runs and is recorded again.
+ * <p>
+ * Metadata is not part of the snapshot, as plugin metadata is not serializable; a
+ * {@link Keys#METADATA_INDEX_FILE metadata index} skips reading unchanged jars instead.
+ */
+public final class DiscoverySnapshot {
+
+    private static final int MAGIC = 0x50534453;
+    private static final int VERSION = 1;
+    private static final long MISSING = -2;
+    private static final long DIRECTORY = -1;
+
+    private DiscoverySnapshot() {
+    }
+
+    /**
+     * Locates resources with every locator, each on its own virtual thread, reusing the snapshot where possible.
+     *
+     * @param environment The environment
+     * @param locators The locators
+     * @return The {@link DiscoveredResource resources}, in locator order
+     */
+    public static List<DiscoveredResource> locate(final Environment environment, final List<PluginResourceLocator> locators) {
+        try (final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            return DiscoverySnapshot.locate(environment, locators, executor);
+        }
+    }
+
+    /**
+     * Locates resources with every locator, running them on the given {@link Executor executor} and reusing the
+     * snapshot where possible.
+     *
+     * @param environment The environment
+     * @param locators The locators
+     * @param executor The executor
+     * @return The {@link DiscoveredResource resources}, in locator order
+     */
+    public static List<DiscoveredResource> locate(final Environment environment, final List<PluginResourceLocator> locators, final Executor executor) {
+        final Path configured = environment.blackboard().getOrNull(JVMKeys.DISCOVERY_SNAPSHOT_FILE);
+        if (configured == null) {
+            return PluginResourceDiscovery.locate(environment, locators, executor);
+        }
+        final Path base = environment.blackboard().getOrNull(Keys.BASE_DIRECTORY);
+        final Path file = base == null ? configured : base.resolve(configured);
+
+        final Map<String, Entry> snapshot = DiscoverySnapshot.read(environment, file);
+        final List<Snapshotted> snapshotted = new ArrayList<>(locators.size());
+        for (final PluginResourceLocator locator : locators) {
+            final String inputs = DiscoverySnapshot.inputs(environment, locator);
+            final Entry entry = inputs == null ? null : snapshot.get(locator.name());
+            final boolean current = entry != null && entry.inputs().equals(inputs) && entry.isCurrent();
+            snapshotted.add(new Snapshotted(locator, inputs, current ? entry : null, current ? entry.restore(environment) : null));
+        }
+
+        final List<DiscoveredResource> resources = PluginResourceDiscovery.locate(environment, List.<PluginResourceLocator>copyOf(snapshotted), executor);
+
+        final Map<String, Entry> entries = new LinkedHashMap<>();
+        boolean changed = false;
+        for (final Snapshotted locator : snapshotted) {
+            if (locator.entry != null) {
+                entries.put(locator.name(), locator.entry);
+            } else if (locator.captured != null) {
+                entries.put(locator.name(), locator.captured);
+                changed = true;
+            }
+        }
+        if (changed || !entries.keySet().equals(snapshot.keySet())) {
+            DiscoverySnapshot.write(environment, file, entries);
+        }
+        return resources;
+    }
+
+    private static @Nullable String inputs(final Environment environment, final PluginResourceLocator locator) {
+        if (locator instanceof EnvironmentPluginResourceLocator) {
+            final String name = environment.blackboard().getOrNull(JVMKeys.ENVIRONMENT_LOCATOR_VARIABLE_NAME);
+            return name == null ? "disabled" : name + "=" + System.getenv(name);
+        }
+        if (locator instanceof DirectoryPluginResourceLocator) {
+            final List<Path> directories = environment.blackboard().getOrNull(Keys.PLUGIN_DIRECTORIES);
+            if (directories == null) {
+                return "disabled";
+            }
+            final List<Path> absolute = new ArrayList<>(directories.size());
+            directories.forEach(directory -> absolute.add(directory.toAbsolutePath()));
+            return "directories=" + absolute
+                    + "\nmaxDepth=" + environment.blackboard().getInt(Keys.PLUGIN_DIRECTORY_MAX_DEPTH, Integer.MAX_VALUE)
+                    + "\nexcludes=" + environment.blackboard().getOrDefault(Keys.PLUGIN_DIRECTORY_EXCLUDES, List.of());
+        }
+        return null;
+    }
+
+    private static Map<String, Entry> read(final Environment environment, final Path file) {
+        final Map<String, Entry> entries = new LinkedHashMap<>();
+        final byte[] bytes;
+        try {
+            bytes = Files.readAllBytes(file);
+        } catch (final NoSuchFileException ex) {
+            return entries;
+        } catch (final IOException ex) {
+            environment.logger().warn("Failed to read discovery snapshot '{}'. Locating from scratch.", file, ex);
+            return entries;
+        }
+
+        final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        if (buffer.remaining() < Integer.BYTES * 4 || buffer.getInt() != DiscoverySnapshot.MAGIC || buffer.getInt() != DiscoverySnapshot.VERSION) {
+            environment.logger().debug("Discovery snapshot '{}' is not in a supported format. Locating from scratch.", file);
+            return entries;
+        }
+        final int length = buffer.getInt();
+        final int checksum = buffer.getInt();
+        if (length != buffer.remaining()) {
+            environment.logger().warn("Discovery snapshot '{}' is truncated. Locating from scratch.", file);
+            return entries;
+        }
+        final CRC32 crc = new CRC32();
+        crc.update(bytes, buffer.position(), length);
+        if ((int) crc.getValue() != checksum) {
+            environment.logger().warn("Discovery snapshot '{}' is damaged. Locating from scratch.", file);
+            return entries;
+        }
+
+        try (final DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes, buffer.position(), length))) {
+            final int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                final String name = DiscoverySnapshot.readString(in);
+                entries.put(name, Entry.read(in));
+            }
+        } catch (final IOException ex) {
+            environment.logger().warn("Failed to read discovery snapshot '{}'. Locating from scratch.", file, ex);
+            entries.clear();
+        }
+        return entries;
+    }
+
+    private static void write(final Environment environment, final Path file, final Map<String, Entry> entries) {
+        final byte[] payload;
+        try {
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (final DataOutputStream out = new DataOutputStream(bytes)) {
+                out.writeInt(entries.size());
+                for (final Map.Entry<String, Entry> entry : entries.entrySet()) {
+                    DiscoverySnapshot.writeString(out, entry.getKey());
+                    entry.getValue().write(out);
+                }
+            }
+            payload = bytes.toByteArray();
+        } catch (final IOException ex) {
+            environment.logger().warn("Failed to encode discovery snapshot '{}'", file, ex);
+            return;
+        }
+        final CRC32 crc = new CRC32();
+        crc.update(payload);
+        final ByteBuffer header = ByteBuffer.allocate(Integer.BYTES * 4)
+                .putInt(DiscoverySnapshot.MAGIC)
+                .putInt(DiscoverySnapshot.VERSION)
+                .putInt(payload.length)
+                .putInt((int) crc.getValue());
+
+        final Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            final byte[] contents = new byte[header.capacity() + payload.length];
+            System.arraycopy(header.array(), 0, contents, 0, header.capacity());
+            System.arraycopy(payload, 0, contents, header.capacity(), payload.length);
+            Files.write(temp, contents);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (final IOException ex) {
+            environment.logger().warn("Failed to write discovery snapshot '{}'", file, ex);
+        }
+    }
+
+    private static String readString(final DataInputStream in) throws IOException {
+        final int length = in.readInt();
+        if (length < 0) {
+            throw new IOException("Negative string length");
+        }
+        return new String(in.readNBytes(length), StandardCharsets.UTF_8);
+    }
+
+    private static void writeString(final DataOutputStream out, final String value) throws IOException {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * The status of a file or directory when the snapshot was taken.
+     *
+     * @param path The path
+     * @param size The size of a file, or {@link #DIRECTORY} or {@link #MISSING}
+     * @param modified The modification time, in nanoseconds
+     */
+    private record Stamp(Path path, long size, long modified) {
+
+        static Stamp of(final Path path) {
+            final BasicFileAttributes attributes;
+            try {
+                attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            } catch (final IOException ignored) {
+                return new Stamp(path, DiscoverySnapshot.MISSING, 0);
+            }
+            return Stamp.of(path, attributes);
+        }
+
+        static Stamp of(final Path path, final BasicFileAttributes attributes) {
+            final long modified = attributes.lastModifiedTime().to(TimeUnit.NANOSECONDS);
+            return new Stamp(path, attributes.isDirectory() ? DiscoverySnapshot.DIRECTORY : attributes.size(), modified);
+        }
+
+        boolean isCurrent() {
+            return Stamp.of(this.path).equals(this);
+        }
+    }
+
+    private record StoredResult(List<Path> paths, UnknownResourceStrategy strategy) {
+    }
+
+    private record Entry(String inputs, List<Stamp> stamps, List<StoredResult> results) {
+
+        static Entry read(final DataInputStream in) throws IOException {
+            final String inputs = DiscoverySnapshot.readString(in);
+            final int stampCount = in.readInt();
+            final List<Stamp> stamps = new ArrayList<>(stampCount);
+            for (int i = 0; i < stampCount; i++) {
+                stamps.add(new Stamp(Path.of(DiscoverySnapshot.readString(in)), in.readLong(), in.readLong()));
+            }
+            final int resultCount = in.readInt();
+            final List<StoredResult> results = new ArrayList<>(resultCount);
+            for (int i = 0; i < resultCount; i++) {
+                final int pathCount = in.readInt();
+                final List<Path> paths = new ArrayList<>(pathCount);
+                for (int j = 0; j < pathCount; j++) {
+                    paths.add(Path.of(DiscoverySnapshot.readString(in)));
+                }
+                results.add(new StoredResult(paths, new UnknownResourceStrategy(in.readBoolean(), in.readBoolean())));
+            }
+            return new Entry(inputs, stamps, results);
+        }
+
+        void write(final DataOutputStream out) throws IOException {
+            DiscoverySnapshot.writeString(out, this.inputs);
+            out.writeInt(this.stamps.size());
+            for (final Stamp stamp : this.stamps) {
+                DiscoverySnapshot.writeString(out, stamp.path().toString());
+                out.writeLong(stamp.size());
+                out.writeLong(stamp.modified());
+            }
+            out.writeInt(this.results.size());
+            for (final StoredResult result : this.results) {
+                out.writeInt(result.paths().size());
+                for (final Path path : result.paths()) {
+                    DiscoverySnapshot.writeString(out, path.toString());
+                }
+                out.writeBoolean(result.strategy().warn());
+                out.writeBoolean(result.strategy().load());
+            }
+        }
+
+        boolean isCurrent() {
+            for (final Stamp stamp : this.stamps) {
+                if (!stamp.isCurrent()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        List<PluginResourceLocator.Result> restore(final Environment environment) {
+            final List<PluginResourceLocator.Result> restored = new ArrayList<>(this.results.size());
+            for (final StoredResult result : this.results) {
+                restored.add(new PluginResourceLocator.Result(JVMPluginResource.create(environment, result.paths().toArray(Path[]::new)), result.strategy()));
+            }
+            return restored;
+        }
+    }
+
+    /**
+     * Stands in for a locator, serving its results from the snapshot when they are current and otherwise
+     * running it and capturing what it located along with the stamps read on the way.
+     */
+    private static final class Snapshotted implements DelegatingLocator {
+
+        final PluginResourceLocator delegate;
+        final @Nullable String inputs;
+        final @Nullable Entry entry;
+        final @Nullable Collection<Result> restored;
+        volatile @Nullable Entry captured;
+
+        Snapshotted(final PluginResourceLocator delegate, final @Nullable String inputs, final @Nullable Entry entry,
+                final @Nullable Collection<Result> restored) {
+            this.delegate = delegate;
+            this.inputs = inputs;
+            this.entry = entry;
+            this.restored = restored;
+        }
+
+        @Override
+        public PluginResourceLocator delegate() {
+            return this.delegate;
+        }
+
+        @Override
+        public String name() {
+            return this.delegate.name();
+        }
+
+        @Override
+        public Collection<Result> locatePluginResources(final Environment environment) throws Exception {
+            if (this.restored != null) {
+                return this.restored;
+            }
+            if (this.inputs == null) {
+                return this.delegate.locatePluginResources(environment);
+            }
+
+            final Map<Path, Stamp> stamps = new LinkedHashMap<>();
+            final Collection<Result> located;
+            if (this.delegate instanceof DirectoryPluginResourceLocator directory) {
+                for (final Path root : environment.blackboard().getOrDefault(Keys.PLUGIN_DIRECTORIES, List.<Path>of())) {
+                    stamps.put(root, Stamp.of(root));
+                }
+                final DirectoryPluginResourceLocator.Located walked = directory.locate(environment);
+                walked.attributes().forEach((path, attributes) -> stamps.putIfAbsent(path, Stamp.of(path, attributes)));
+                located = walked.results();
+            } else {
+                final String name = environment.blackboard().getOrNull(JVMKeys.ENVIRONMENT_LOCATOR_VARIABLE_NAME);
+                final String value = name == null ? null : System.getenv(name);
+                if (value != null) {
+                    for (final Path[] paths : EnvironmentPluginResourceLocator.entries(value)) {
+                        for (final Path path : paths) {
+                            stamps.computeIfAbsent(path, Stamp::of);
+                        }
+                    }
+                }
+                located = this.delegate.locatePluginResources(environment);
+            }
+
+            final List<StoredResult> results = new ArrayList<>(located.size());
+            for (final Result result : located) {
+                results.add(new StoredResult(List.copyOf(result.resource().paths()), result.unknownResourceStrategy()));
+            }
+            this.captured = new Entry(this.inputs, List.copyOf(stamps.values()), results);
+            return located;
+        }
+
+        @Override
+        public CompletionStage<Collection<Result>> locatePluginResourcesAsync(final Environment environment, final Executor executor) {
+            if (this.restored != null) {
+                return CompletableFuture.completedFuture(this.restored);
+            }
+            if (this.inputs == null) {
+                return this.delegate.locatePluginResourcesAsync(environment, executor);
+            }
+            return Futures.supplyAsync(() -> this.locatePluginResources(environment), executor);
+        }
+    }
+}
@@ -32,9 +32,11 @@ import org.spongepowered.plugin.discovery.UnknownResourceStrategy;
 
 import java.io.File;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Stream;
@@ -60,13 +62,24 @@ public final class EnvironmentPluginResourceLocator implements PluginResourceLoc
         }
 
         final Set<Result> results = new HashSet<>();
-        for (final String entry : env.split(File.pathSeparator)) {
+        for (final Path[] paths : EnvironmentPluginResourceLocator.entries(env)) {
+            results.add(new Result(JVMPluginResource.create(environment, paths), UnknownResourceStrategy.WARN));
+        }
+        return results;
+    }
+
+    /**
+     * @param value The value of the environment variable
+     * @return The paths of each resource listed in it
+     */
+    static List<Path[]> entries(final String value) {
+        final List<Path[]> entries = new ArrayList<>();
+        for (final String entry : value.split(File.pathSeparator)) {
             if (entry.isBlank()) {
                 continue;
             }
-            final Path[] paths = Stream.of(entry.split("&")).map(Path::of).toArray(Path[]::new);
-            results.add(new Result(JVMPluginResource.create(environment, paths), UnknownResourceStrategy.WARN));
+            entries.add(Stream.of(entry.split("&")).map(Path::of).toArray(Path[]::new));
         }
-        return results;
+        return entries;
     }
 }
@@ -0,0 +1,44 @@
+/*
+ * This file is part of plugin-spi, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.plugin.discovery;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A {@link PluginResource resource} as located by one or more {@link PluginResourceLocator locators}.
+ *
+ * @param resource The resource
+ * @param unknownResourceStrategy The {@link UnknownResourceStrategy#merge(UnknownResourceStrategy) merged} strategy of all locators
+ * @param locators The locators that located the resource
+ */
+public record DiscoveredResource(PluginResource resource, UnknownResourceStrategy unknownResourceStrategy, List<PluginResourceLocator> locators) {
+
+    public DiscoveredResource {
+        Objects.requireNonNull(resource, "resource");
+        Objects.requireNonNull(unknownResourceStrategy, "unknownResourceStrategy");
+        locators = List.copyOf(Objects.requireNonNull(locators, "locators"));
+    }
+}
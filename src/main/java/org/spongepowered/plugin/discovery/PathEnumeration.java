@@ -0,0 +1,127 @@
+/*
+ * This file is part of plugin-spi, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.plugin.discovery;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.spongepowered.plugin.ResourceQueryable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Enumerates the entries of the directories and jars behind a {@link PluginResource}, for resources that
+ * do not provide an enumeration of their own.
+ * <p>
+ * Where several paths contain the same entry, only the one in the earliest path is visited, as on a classpath.
+ */
+final class PathEnumeration {
+
+    private PathEnumeration() {
+    }
+
+    static void visit(final List<Path> paths, final String prefix, final ResourceQueryable.Visitor visitor) {
+        final @Nullable Set<String> seen = paths.size() > 1 ? new HashSet<>() : null;
+        for (final Path path : paths) {
+            try {
+                final boolean completed = Files.isDirectory(path)
+                        ? PathEnumeration.visitDirectory(path.toAbsolutePath().normalize(), prefix, seen, visitor)
+                        : PathEnumeration.visitJar(path, prefix, seen, visitor);
+                if (!completed) {
+                    return;
+                }
+            } catch (final IOException ex) {
+                throw new UncheckedIOException("Failed to enumerate " + path, ex);
+            }
+        }
+    }
+
+    private static boolean visitDirectory(final Path root, final String prefix, final @Nullable Set<String> seen, final ResourceQueryable.Visitor visitor)
+            throws IOException {
+        final int slash = prefix.lastIndexOf('/');
+        final Path start = slash < 0 ? root : root.resolve(prefix.substring(0, slash)).normalize();
+        if (!start.startsWith(root) || !Files.isDirectory(start)) {
+            return true;
+        }
+        final boolean[] completed = {true};
+        Files.walkFileTree(start, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult visitFile(final Path file, final BasicFileAttributes attributes) {
+                if (!attributes.isRegularFile()) {
+                    return FileVisitResult.CONTINUE;
+                }
+                final StringJoiner name = new StringJoiner("/");
+                for (final Path part : root.relativize(file)) {
+                    name.add(part.toString());
+                }
+                if (PathEnumeration.accept(name.toString(), prefix, seen) && !visitor.visit(name.toString(), file.toUri())) {
+                    completed[0] = false;
+                    return FileVisitResult.TERMINATE;
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return completed[0];
+    }
+
+    private static boolean visitJar(final Path jar, final String prefix, final @Nullable Set<String> seen, final ResourceQueryable.Visitor visitor) throws IOException {
+        final String base = "jar:" + jar.toUri() + "!/";
+        try (final ZipFile zip = new ZipFile(jar.toFile())) {
+            for (final Enumeration<? extends ZipEntry> entries = zip.entries(); entries.hasMoreElements(); ) {
+                final ZipEntry entry = entries.nextElement();
+                final String name = entry.getName();
+                if (!entry.isDirectory() && PathEnumeration.accept(name, prefix, seen) && !visitor.visit(name, PathEnumeration.uri(base, name))) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static boolean accept(final String name, final String prefix, final @Nullable Set<String> seen) {
+        return name.startsWith(prefix) && (seen == null || seen.add(name));
+    }
+
+    private static URI uri(final String base, final String name) {
+        try {
+            return new URI(base + new URI(null, null, "/" + name, null).getRawPath().substring(1));
+        } catch (final URISyntaxException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -0,0 +1,211 @@
+/*
+ * This file is part of plugin-spi, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.plugin.discovery;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.spongepowered.plugin.Environment;
+import org.spongepowered.plugin.PluginLifecycleListener;
+import org.spongepowered.plugin.internal.Futures;
+import org.spongepowered.plugin.internal.Jfr;
+import org.spongepowered.plugin.internal.TimedExecutor;
+import org.spongepowered.plugin.jfr.ReadMetadataEvent;
+import org.spongepowered.plugin.metadata.PluginMetadata;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Reads {@link PluginMetadata metadata} from {@link DiscoveredResource resources} concurrently.
+ * <p>
+ * Every resource is offered to every {@link PluginMetadataReader reader} at once, through its
+ * {@link PluginMetadataReader#readPluginMetadataAsync asynchronous} variant. At most a fixed number of
+ * resources are in flight at any time; submission blocks until a worker frees up. Results are returned in
+ * the order of the given resources regardless of completion order, and a reader failing on one resource
+ * is recorded in that resource's {@link Result} without affecting any other. The time each reader takes on
+ * each resource is reported to the {@link Environment#lifecycleListener() lifecycle listener} and, where JFR
+ * is available, as a {@link ReadMetadataEvent}.
+ */
+public final class PluginMetadataDiscovery {
+
+    private PluginMetadataDiscovery() {
+    }
+
+    /**
+     * Reads metadata on virtual threads, with up to twice as many resources in flight as there are processors.
+     *
+     * @param environment The environment
+     * @param resources The resources
+     * @param readers The readers
+     * @return The {@link Result results}, in resource order
+     * @throws InterruptedException if interrupted while waiting for the readers
+     */
+    public static List<Result> read(final Environment environment, final List<DiscoveredResource> resources, final List<PluginMetadataReader> readers)
+            throws InterruptedException {
+        try (final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            return PluginMetadataDiscovery.read(environment, resources, readers, executor, Runtime.getRuntime().availableProcessors() * 2);
+        }
+    }
+
+    /**
+     * Reads metadata on the given {@link Executor executor}.
+     *
+     * @param environment The environment
+     * @param resources The resources
+     * @param readers The readers
+     * @param executor The executor
+     * @param maxInFlight The maximum number of resources being read at once
+     * @return The {@link Result results}, in resource order
+     * @throws InterruptedException if interrupted while waiting for the readers
+     */
+    public static List<Result> read(final Environment environment, final List<DiscoveredResource> resources, final List<PluginMetadataReader> readers,
+            final Executor executor, final int maxInFlight) throws InterruptedException {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("maxInFlight must be positive");
+        }
+
+        final Result[] results = new Result[resources.size()];
+        final Semaphore permits = new Semaphore(maxInFlight);
+        final CountDownLatch remaining = new CountDownLatch(results.length);
+        for (int i = 0; i < results.length; i++) {
+            final int index = i;
+            final DiscoveredResource resource = resources.get(i);
+            permits.acquire();
+            PluginMetadataDiscovery.read(environment, resource, readers, executor).whenComplete((result, failure) -> {
+                results[index] = result;
+                permits.release();
+                remaining.countDown();
+            });
+        }
+        remaining.await();
+        return Collections.unmodifiableList(Arrays.asList(results));
+    }
+
+    private static CompletableFuture<Result> read(final Environment environment, final DiscoveredResource resource, final List<PluginMetadataReader> readers,
+            final Executor executor) {
+        final PluginLifecycleListener listener = environment.lifecycleListener();
+        final List<CompletableFuture<Collection<? extends PluginMetadata>>> stages = new ArrayList<>(readers.size());
+        for (final PluginMetadataReader reader : readers) {
+            final Timing timed = new Timing(executor);
+            CompletableFuture<Collection<? extends PluginMetadata>> stage;
+            try {
+                stage = reader.readPluginMetadataAsync(environment, resource.resource(), resource.locators(), timed).toCompletableFuture();
+            } catch (final RuntimeException ex) {
+                stage = CompletableFuture.failedFuture(ex);
+            }
+            stages.add(stage.whenComplete((read, failure) -> {
+                final Exception ex = failure == null ? null : Futures.unwrap(failure);
+                final int count = read == null ? 0 : read.size();
+                timed.event(reader, resource.resource(), count, ex);
+                listener.metadataRead(reader, resource.resource(), timed.elapsed(), count, ex);
+            }));
+        }
+
+        return CompletableFuture.allOf(stages.toArray(CompletableFuture[]::new)).handle((ignored, failure) -> {
+            final Map<PluginMetadataReader, Collection<? extends PluginMetadata>> metadata = new LinkedHashMap<>();
+            final Map<PluginMetadataReader, Exception> failures = new LinkedHashMap<>();
+            for (int i = 0; i < stages.size(); i++) {
+                final CompletableFuture<Collection<? extends PluginMetadata>> stage = stages.get(i);
+                if (stage.state() == Future.State.SUCCESS) {
+                    if (!stage.resultNow().isEmpty()) {
+                        metadata.put(readers.get(i), stage.resultNow());
+                    }
+                } else {
+                    failures.put(readers.get(i), Futures.unwrap(stage.exceptionNow()));
+                }
+            }
+            return new Result(resource, metadata, failures);
+        });
+    }
+
+    /**
+     * The timing of one read, restarted with its event when the read first runs on the executor. The event is
+     * kept behind this class rather than captured by the lambdas reporting it, as a lambda capturing it would
+     * load the event class even where JFR is not available.
+     */
+    private static final class Timing extends TimedExecutor {
+
+        private final @Nullable ReadMetadataEvent event;
+
+        Timing(final Executor delegate) {
+            super(delegate);
+            this.event = Jfr.AVAILABLE ? new ReadMetadataEvent() : null;
+            if (this.event != null) {
+                this.event.begin();
+            }
+        }
+
+        @Override
+        protected void started() {
+            if (this.event != null) {
+                this.event.begin();
+            }
+        }
+
+        void event(final PluginMetadataReader reader, final PluginResource resource, final int count, final @Nullable Exception failure) {
+            if (this.event != null) {
+                this.event.finish(reader, resource, count, failure);
+            }
+        }
+    }
+
+    /**
+     * The outcome of reading a single resource.
+     *
+     * @param resource The resource
+     * @param metadata The non-empty metadata read, by reader, in reader order
+     * @param failures The exceptions thrown, by reader, in reader order
+     */
+    public record Result(DiscoveredResource resource, Map<PluginMetadataReader, Collection<? extends PluginMetadata>> metadata,
+            Map<PluginMetadataReader, Exception> failures) {
+
+        public Result {
+            Objects.requireNonNull(resource, "resource");
+            metadata = Collections.unmodifiableMap(new LinkedHashMap<>(Objects.requireNonNull(metadata, "metadata")));
+            failures = Collections.unmodifiableMap(new LinkedHashMap<>(Objects.requireNonNull(failures, "failures")));
+        }
+
+        /**
+         * @return All metadata read from the resource, in reader order
+         */
+        public List<PluginMetadata> allMetadata() {
+            final List<PluginMetadata> all = new ArrayList<>();
+            this.metadata.values().forEach(all::addAll);
+            return all;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * This file is part of plugin-spi, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.plugin.discovery;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.spongepowered.plugin.metadata.PluginMetadata;
+
+import java.util.Objects;
+import java.util.StringJoiner;
+import java.util.concurrent.Callable;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The few fields of a {@link PluginMetadata plugin metadata} that most boot decisions depend on, such as
+ * duplicate detection, loader selection or disabling plugins, with the complete metadata resolved on demand.
+ * <p>
+ * The complete metadata is resolved at most once, on the first call to {@link #metadata()}.
+ */
+public final class PluginMetadataHeader {
+
+    private final String id;
+    private final @Nullable String version;
+    private final @Nullable String loader;
+    private final ReentrantLock lock = new ReentrantLock();
+    private @Nullable Callable<? extends PluginMetadata> resolver;
+    private volatile @Nullable PluginMetadata metadata;
+
+    private PluginMetadataHeader(final String id, final @Nullable String version, final @Nullable String loader,
+            final @Nullable Callable<? extends PluginMetadata> resolver, final @Nullable PluginMetadata metadata) {
+        this.id = Objects.requireNonNull(id, "id");
+        this.version = version;
+        this.loader = loader;
+        this.resolver = resolver;
+        this.metadata = metadata;
+    }
+
+    /**
+     * Creates a header for metadata that has already been read.
+     *
+     * @param metadata The metadata
+     * @return The header
+     */
+    public static PluginMetadataHeader of(final PluginMetadata metadata) {
+        Objects.requireNonNull(metadata, "metadata");
+        return new PluginMetadataHeader(metadata.id(), metadata.version().toString(), null, null, metadata);
+    }
+
+    /**
+     * Creates a header whose complete metadata is read when first asked for.
+     *
+     * @param id The plugin id
+     * @param version The plugin version, if declared
+     * @param loader The name of the loader, if known
+     * @param resolver Reads the complete metadata
+     * @return The header
+     */
+    public static PluginMetadataHeader lazy(final String id, final @Nullable String version, final @Nullable String loader,
+            final Callable<? extends PluginMetadata> resolver) {
+        return new PluginMetadataHeader(id, version, loader, Objects.requireNonNull(resolver, "resolver"), null);
+    }
+
+    /**
+     * @return The plugin id
+     */
+    public String id() {
+        return this.id;
+    }
+
+    /**
+     * @return The plugin version as declared, or {@code null} if none is declared
+     */
+    public @Nullable String version() {
+        return this.version;
+    }
+
+    /**
+     * @return The name of the loader, or {@code null} if the reader does not expose it without a full read
+     */
+    public @Nullable String loader() {
+        return this.loader;
+    }
+
+    /**
+     * @return Whether the complete metadata has been resolved
+     */
+    public boolean isResolved() {
+        return this.metadata != null;
+    }
+
+    /**
+     * Resolves the complete metadata, reading it on the first call.
+     *
+     * @return The metadata
+     * @throws Exception if the metadata could not be read
+     */
+    public PluginMetadata metadata() throws Exception {
+        PluginMetadata metadata = this.metadata;
+        if (metadata == null) {
+            this.lock.lock();
+            try {
+                metadata = this.metadata;
+                if (metadata == null) {
+                    metadata = Objects.requireNonNull(this.resolver, "resolver").call();
+                    if (metadata == null || !this.id.equals(metadata.id())) {
+                        throw new IllegalStateException(String.format("Resolved metadata does not match plugin '%s'", this.id));
+                    }
+                    this.metadata = metadata;
+                    this.resolver = null;
+                }
+            } finally {
+                this.lock.unlock();
+            }
+        }
+        return metadata;
+    }
+
+    @Override
+    public String toString() {
+        return new StringJoiner(", ", this.getClass().getSimpleName() + "[", "]")
+                .add("id=" + this.id)
+                .add("version=" + this.version)
+                .add("loader=" + this.loader)
+                .toString();
+    }
+}
@@ -26,10 +26,16 @@ package org.spongepowered.plugin.discovery;
 
 import org.spongepowered.plugin.Environment;
 import org.spongepowered.plugin.PluginService;
+import org.spongepowered.plugin.internal.Futures;
 import org.spongepowered.plugin.metadata.PluginMetadata;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.function.Predicate;
 
 /**
  * A service used to read {@link PluginMetadata metadata} from {@link PluginResource resources}.
@@ -43,6 +49,8 @@ public interface PluginMetadataReader extends PluginService {
 
     /**
      * Reads a list of {@link PluginMetadata plugin metadata} from the given {@link PluginResource resource}.
+     * <p>
+     * This may block, and may be called for several resources at once; see {@link PluginService}.
      *
      * @param environment The environment
      * @param resource The resource
@@ -50,4 +58,65 @@ public interface PluginMetadataReader extends PluginService {
      * @return The {@link List candidates}
      */
     Collection<? extends PluginMetadata> readPluginMetadata(Environment environment, PluginResource resource, List<PluginResourceLocator> locators) throws Exception;
+
+    /**
+     * Reads a list of {@link PluginMetadata plugin metadata} from the given {@link PluginResource resource} asynchronously.
+     * <p>
+     * The default runs {@link #readPluginMetadata(Environment, PluginResource, List)} on the given executor,
+     * completing exceptionally with a {@link CompletionException} wrapping anything it throws.
+     *
+     * @param environment The environment
+     * @param resource The resource
+     * @param locators The services that located the resource
+     * @param executor The executor to run blocking work on
+     * @return A stage completing with the {@link List candidates}
+     */
+    default CompletionStage<Collection<? extends PluginMetadata>> readPluginMetadataAsync(final Environment environment, final PluginResource resource,
+            final List<PluginResourceLocator> locators, final Executor executor) {
+        return Futures.supplyAsync(() -> this.readPluginMetadata(environment, resource, locators), executor);
+    }
+
+    /**
+     * Reads {@link PluginMetadata plugin metadata} from the given {@link PluginResource resource}, handing each
+     * entry to the consumer as soon as it is available.
+     * <p>
+     * Reading stops as soon as the consumer returns {@code false}, which lets callers that only need part of the
+     * metadata, such as ids and versions for dependency pre-resolution, avoid reading the rest. Readers that can
+     * produce entries incrementally should override this; the default reads everything first.
+     *
+     * @param environment The environment
+     * @param resource The resource
+     * @param locators The services that located the resource
+     * @param consumer The consumer, returning {@code false} to stop reading
+     * @return {@code true} if all metadata was read, {@code false} if the consumer stopped reading early
+     */
+    default boolean readPluginMetadata(final Environment environment, final PluginResource resource, final List<PluginResourceLocator> locators,
+            final Predicate<? super PluginMetadata> consumer) throws Exception {
+        for (final PluginMetadata metadata : this.readPluginMetadata(environment, resource, locators)) {
+            if (!consumer.test(metadata)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reads only the {@link PluginMetadataHeader headers} of the plugin metadata in the given {@link PluginResource resource}.
+     * <p>
+     * Readers that can extract ids, versions and loaders more cheaply than a full read should override this, so
+     * that the complete metadata is only read for plugins that are actually loaded. The default reads everything.
+     *
+     * @param environment The environment
+     * @param resource The resource
+     * @param locators The services that located the resource
+     * @return The {@link List headers}
+     */
+    default List<PluginMetadataHeader> readPluginHeaders(final Environment environment, final PluginResource resource, final List<PluginResourceLocator> locators)
+            throws Exception {
+        final List<PluginMetadataHeader> headers = new ArrayList<>();
+        for (final PluginMetadata metadata : this.readPluginMetadata(environment, resource, locators)) {
+            headers.add(PluginMetadataHeader.of(metadata));
+        }
+        return headers;
+    }
 }
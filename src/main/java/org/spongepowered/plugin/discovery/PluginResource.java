@@ -24,10 +24,12 @@
  */
 package org.spongepowered.plugin.discovery;
 
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.spongepowered.plugin.ResourceQueryable;
 
 import java.nio.file.Path;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 /**
@@ -57,5 +59,36 @@ public interface PluginResource extends ResourceQueryable {
      * @param key The key
      * @return The value or {@link Optional#empty()} if not found
      */
-    Optional<String> property(final String key);
+    default Optional<String> property(final String key) {
+        return Optional.ofNullable(this.propertyOrNull(key));
+    }
+
+    /**
+     * Retrieve a {@link String property} of this resource by {@link String key}, without allocating an {@link Optional}.
+     * <p>
+     * This and {@link #property(String)} are each implemented in terms of the other, so implementations must
+     * override at least one of them, and should override this one. The default is kept so that implementations
+     * written against {@link #property(String)} alone continue to work.
+     *
+     * @param key The key
+     * @return The value or {@code null} if not found
+     * @see #property(String)
+     */
+    default @Nullable String propertyOrNull(final String key) {
+        return this.property(key).orElse(null);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The default enumerates the files under each directory and the entries of each jar in {@link #paths()},
+     * opening every jar for the duration of the call. Where several paths contain the same entry, only the
+     * one in the earliest path is visited.
+     *
+     * @throws java.io.UncheckedIOException if a path could not be enumerated
+     */
+    @Override
+    default void visitResources(final String prefix, final Visitor visitor) {
+        PathEnumeration.visit(this.paths(), Objects.requireNonNull(prefix, "prefix"), Objects.requireNonNull(visitor, "visitor"));
+    }
 }
@@ -0,0 +1,197 @@
+/*
+ * This file is part of plugin-spi, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.plugin.discovery;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.spongepowered.plugin.Environment;
+import org.spongepowered.plugin.PluginLifecycleListener;
+import org.spongepowered.plugin.internal.CanonicalPaths;
+import org.spongepowered.plugin.internal.DelegatingLocator;
+import org.spongepowered.plugin.internal.Futures;
+import org.spongepowered.plugin.internal.Jfr;
+import org.spongepowered.plugin.internal.TimedExecutor;
+import org.spongepowered.plugin.jfr.LocateResourcesEvent;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs {@link PluginResourceLocator locators} concurrently, through their
+ * {@link PluginResourceLocator#locatePluginResourcesAsync(Environment, Executor) asynchronous} variants, and
+ * merges what they find.
+ * <p>
+ * Resources located by several locators are reported once, keyed by the canonical form of their
+ * {@link PluginResource#paths() paths}, with their {@link UnknownResourceStrategy strategies} merged.
+ * A locator that fails is logged and does not prevent the others from completing. The time each locator
+ * takes is reported to the {@link Environment#lifecycleListener() lifecycle listener} and, where JFR is
+ * available, as a {@link LocateResourcesEvent}.
+ */
+public final class PluginResourceDiscovery {
+
+    private PluginResourceDiscovery() {
+    }
+
+    /**
+     * Locates resources with every locator, each on its own virtual thread.
+     *
+     * @param environment The environment
+     * @param locators The locators
+     * @return The {@link DiscoveredResource resources}, in locator order
+     */
+    public static List<DiscoveredResource> locate(final Environment environment, final List<PluginResourceLocator> locators) {
+        try (final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            return PluginResourceDiscovery.locate(environment, locators, executor);
+        }
+    }
+
+    /**
+     * Locates resources with every locator, running them on the given {@link Executor executor}.
+     *
+     * @param environment The environment
+     * @param locators The locators
+     * @param executor The executor
+     * @return The {@link DiscoveredResource resources}, in locator order
+     */
+    public static List<DiscoveredResource> locate(final Environment environment, final List<PluginResourceLocator> locators, final Executor executor) {
+        final PluginLifecycleListener listener = environment.lifecycleListener();
+        final List<CompletableFuture<List<Located>>> futures = new ArrayList<>(locators.size());
+        for (final PluginResourceLocator locator : locators) {
+            final PluginResourceLocator reported = PluginResourceDiscovery.reported(locator);
+            final Timing timing = new Timing(executor);
+            CompletableFuture<Collection<PluginResourceLocator.Result>> stage;
+            try {
+                stage = locator.locatePluginResourcesAsync(environment, timing).toCompletableFuture();
+            } catch (final RuntimeException ex) {
+                stage = CompletableFuture.failedFuture(ex);
+            }
+            futures.add(stage.whenComplete((results, failure) -> {
+                final Exception ex = failure == null ? null : Futures.unwrap(failure);
+                final int count = results == null ? 0 : results.size();
+                timing.event(reported, count, ex);
+                listener.resourcesLocated(reported, timing.elapsed(), count, ex);
+            }).thenApplyAsync(results -> {
+                final List<Located> located = new ArrayList<>(results.size());
+                for (final PluginResourceLocator.Result result : results) {
+                    located.add(new Located(PluginResourceDiscovery.canonicalPaths(result.resource()), result));
+                }
+                return located;
+            }, executor));
+        }
+
+        final Map<List<Path>, Merged> merged = new LinkedHashMap<>();
+        for (int i = 0; i < locators.size(); i++) {
+            final PluginResourceLocator locator = PluginResourceDiscovery.reported(locators.get(i));
+            final List<Located> located;
+            try {
+                located = futures.get(i).join();
+            } catch (final CompletionException ex) {
+                environment.logger().error("Locator '{}' failed to locate plugin resources", locator.name(), ex.getCause());
+                continue;
+            }
+            for (final Located entry : located) {
+                merged.computeIfAbsent(entry.key(), key -> new Merged(entry.result().resource())).add(locator, entry.result().unknownResourceStrategy());
+            }
+        }
+
+        final List<DiscoveredResource> resources = new ArrayList<>(merged.size());
+        for (final Merged entry : merged.values()) {
+            resources.add(new DiscoveredResource(entry.resource, entry.strategy, entry.locators));
+        }
+        return resources;
+    }
+
+    private static PluginResourceLocator reported(final PluginResourceLocator locator) {
+        return locator instanceof final DelegatingLocator delegating ? delegating.delegate() : locator;
+    }
+
+    private static List<Path> canonicalPaths(final PluginResource resource) {
+        final List<Path> paths = new ArrayList<>(resource.paths().size());
+        for (final Path path : resource.paths()) {
+            paths.add(CanonicalPaths.of(path));
+        }
+        return paths;
+    }
+
+    private record Located(List<Path> key, PluginResourceLocator.Result result) {
+    }
+
+    /**
+     * The timing of one locator, restarted with its event when the locator first runs on the executor. The
+     * event is kept behind this class rather than captured by the lambdas reporting it, as a lambda capturing
+     * it would load the event class even where JFR is not available.
+     */
+    private static final class Timing extends TimedExecutor {
+
+        private final @Nullable LocateResourcesEvent event;
+
+        Timing(final Executor delegate) {
+            super(delegate);
+            this.event = Jfr.AVAILABLE ? new LocateResourcesEvent() : null;
+            if (this.event != null) {
+                this.event.begin();
+            }
+        }
+
+        @Override
+        protected void started() {
+            if (this.event != null) {
+                this.event.begin();
+            }
+        }
+
+        void event(final PluginResourceLocator locator, final int count, final @Nullable Exception failure) {
+            if (this.event != null) {
+                this.event.finish(locator, count, failure);
+            }
+        }
+    }
+
+    private static final class Merged {
+
+        final PluginResource resource;
+        final List<PluginResourceLocator> locators = new ArrayList<>(1);
+        UnknownResourceStrategy strategy;
+
+        Merged(final PluginResource resource) {
+            this.resource = resource;
+        }
+
+        void add(final PluginResourceLocator locator, final UnknownResourceStrategy strategy) {
+            if (!this.locators.contains(locator)) {
+                this.locators.add(locator);
+            }
+            this.strategy = this.strategy == null ? strategy : this.strategy.merge(strategy);
+        }
+    }
+}
@@ -26,9 +26,13 @@ package org.spongepowered.plugin.discovery;
 
 import org.spongepowered.plugin.Environment;
 import org.spongepowered.plugin.PluginService;
+import org.spongepowered.plugin.internal.Futures;
 
 import java.util.Collection;
 import java.util.Objects;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
 
 /**
  * A service used to find {@link PluginResource resources} to be processed by {@link PluginMetadataReader readers}.
@@ -44,12 +48,28 @@ public interface PluginResourceLocator extends PluginService {
 
     /**
      * Locates plugin resources.
+     * <p>
+     * This may block, and may run concurrently with other locators; see {@link PluginService}.
      *
      * @param environment The environment
      * @return The {@link PluginResource resources}
      */
     Collection<Result> locatePluginResources(Environment environment) throws Exception;
 
+    /**
+     * Locates plugin resources asynchronously.
+     * <p>
+     * The default runs {@link #locatePluginResources(Environment)} on the given executor, completing
+     * exceptionally with a {@link CompletionException} wrapping anything it throws.
+     *
+     * @param environment The environment
+     * @param executor The executor to run blocking work on
+     * @return A stage completing with the {@link PluginResource resources}
+     */
+    default CompletionStage<Collection<Result>> locatePluginResourcesAsync(final Environment environment, final Executor executor) {
+        return Futures.supplyAsync(() -> this.locatePluginResources(environment), executor);
+    }
+
     record Result(PluginResource resource, UnknownResourceStrategy unknownResourceStrategy) {
         public Result {
             Objects.requireNonNull(resource, "resource");
@@ -0,0 +1,52 @@
+/*
+ * This file is part of plugin-spi, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.plugin.internal;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Canonicalizes paths, so that resources reached through different links compare equal.
+ * <p>
+ * This package is not exported by the module and is not part of the API.
+ */
+public final class CanonicalPaths {
+
+    private CanonicalPaths() {
+    }
+
+    /**
+     * @param path The path
+     * @return The {@link Path#toRealPath real path}, or the absolute normalized path if the path does not exist or
+     *     cannot be resolved
+     */
+    public static Path of(final Path path) {
+        try {
+            return path.toRealPath();
+        } catch (final IOException ignored) {
+            return path.toAbsolutePath().normalize();
+        }
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * This file is part of plugin-spi, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.plugin.internal;
+
+import org.spongepowered.plugin.discovery.PluginResourceLocator;
+
+/**
+ * A {@link PluginResourceLocator locator} that wraps another to add behaviour around it, such as the
+ * discovery snapshot.
+ * <p>
+ * Discovery reports the {@link #delegate() delegate} to the lifecycle listener, to JFR and in the resources it
+ * returns, so that the wrapper is never observed outside of the code that created it.
+ * <p>
+ * This package is not exported by the module and is not part of the API.
+ */
+public interface DelegatingLocator extends PluginResourceLocator {
+
+    /**
+     * @return The locator being wrapped
+     */
+    PluginResourceLocator delegate();
+}
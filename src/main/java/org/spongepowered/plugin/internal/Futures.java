@@ -0,0 +1,78 @@
+/*
+ * This file is part of plugin-spi, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.plugin.internal;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Adapts blocking service calls to {@link CompletableFuture futures} and back.
+ * <p>
+ * This package is not exported by the module and is not part of the API.
+ */
+public final class Futures {
+
+    private Futures() {
+    }
+
+    /**
+     * Runs a blocking task on the given executor, completing exceptionally with a {@link CompletionException}
+     * wrapping anything it throws.
+     *
+     * @param task The task
+     * @param executor The executor
+     * @param <T> The type of the result
+     * @return A future completing with the result of the task
+     */
+    public static <T> CompletableFuture<T> supplyAsync(final Callable<T> task, final Executor executor) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return task.call();
+            } catch (final Exception ex) {
+                throw new CompletionException(ex);
+            }
+        }, executor);
+    }
+
+    /**
+     * @param failure The failure a future completed with
+     * @return The failure, unwrapped from the {@link CompletionException} it may have been wrapped in
+     */
+    public static Throwable cause(final Throwable failure) {
+        return failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+    }
+
+    /**
+     * @param failure The failure a future completed with
+     * @return The failure as an exception, unwrapped as by {@link #cause(Throwable)}, or an error wrapped in a
+     *     {@link CompletionException}
+     */
+    public static Exception unwrap(final Throwable failure) {
+        final Throwable cause = Futures.cause(failure);
+        return cause instanceof Exception ex ? ex : new CompletionException(cause);
+    }
+}
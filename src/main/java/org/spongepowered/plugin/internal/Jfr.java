@@ -0,0 +1,54 @@
+/*
+ * This file is part of plugin-spi, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.plugin.internal;
+
+/**
+ * Tells whether the {@code jdk.jfr} module can be used.
+ * <p>
+ * The module is an optional dependency, so that runtimes built without it can still use the API. The event
+ * classes in {@code org.spongepowered.plugin.jfr} fail to load without it, so every place that emits one
+ * first checks {@link #AVAILABLE}.
+ * <p>
+ * This package is not exported by the module and is not part of the API.
+ */
+public final class Jfr {
+
+    /**
+     * Whether the event classes can be loaded.
+     */
+    public static final boolean AVAILABLE = Jfr.available();
+
+    private Jfr() {
+    }
+
+    private static boolean available() {
+        try {
+            Class.forName("org.spongepowered.plugin.jfr.OpenResourceEvent", false, Jfr.class.getClassLoader());
+            return true;
+        } catch (final ClassNotFoundException | LinkageError ignored) {
+            return false;
+        }
+    }
+}
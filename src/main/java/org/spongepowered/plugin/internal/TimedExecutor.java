@@ -0,0 +1,71 @@
+/*
+ * This file is part of plugin-spi, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.plugin.internal;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Hands the tasks of one service call to an executor, restarting its timing when the first task begins to
+ * run, so that time spent queued behind other calls is not counted. A call that never uses the executor is
+ * timed from when the timed executor was created.
+ * <p>
+ * This package is not exported by the module and is not part of the API.
+ */
+public class TimedExecutor implements Executor {
+
+    private final Executor delegate;
+    private final AtomicBoolean started = new AtomicBoolean();
+    private volatile long start;
+
+    public TimedExecutor(final Executor delegate) {
+        this.delegate = delegate;
+        this.start = System.nanoTime();
+    }
+
+    @Override
+    public final void execute(final Runnable command) {
+        this.delegate.execute(() -> {
+            if (this.started.compareAndSet(false, true)) {
+                this.started();
+                this.start = System.nanoTime();
+            }
+            command.run();
+        });
+    }
+
+    /**
+     * Called on the thread of the first task to run, just before timing restarts.
+     */
+    protected void started() {
+    }
+
+    /**
+     * @return The nanoseconds elapsed since the first task began to run, or since creation if none has
+     */
+    public final long elapsed() {
+        return System.nanoTime() - this.start;
+    }
+}
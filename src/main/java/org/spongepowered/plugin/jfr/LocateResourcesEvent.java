@@ -0,0 +1,69 @@
+/*
+ * This file is part of plugin-spi, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.plugin.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.spongepowered.plugin.discovery.PluginResourceLocator;
+
+/**
+ * Records a call to {@link PluginResourceLocator#locatePluginResources}.
+ */
+@Name("org.spongepowered.plugin.LocateResources")
+@Label("Locate Plugin Resources")
+@Category({"SpongePowered", "Plugin Discovery"})
+@Description("A plugin resource locator locating resources")
+public final class LocateResourcesEvent extends Event {
+
+    @Label("Locator")
+    public String locator;
+
+    @Label("Resources")
+    public int count;
+
+    @Label("Failure")
+    public String failure;
+
+    /**
+     * Ends timing and commits the event if it is enabled.
+     *
+     * @param locator The locator
+     * @param count The number of resources located
+     * @param failure The exception thrown, if any
+     */
+    public void finish(final PluginResourceLocator locator, final int count, final @Nullable Exception failure) {
+        this.end();
+        if (this.shouldCommit()) {
+            this.locator = locator.name();
+            this.count = count;
+            this.failure = failure == null ? null : failure.toString();
+            this.commit();
+        }
+    }
+}
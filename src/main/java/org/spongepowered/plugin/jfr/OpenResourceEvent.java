@@ -0,0 +1,74 @@
+/*
+ * This file is part of plugin-spi, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) SpongePowered <https://www.spongepowered.org>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.spongepowered.plugin.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import org.spongepowered.plugin.ResourceQueryable;
+
+/**
+ * Records a bundled resource being opened or read through one of the built-in {@link ResourceQueryable}
+ * implementations.
+ */
+@Name("org.spongepowered.plugin.OpenResource")
+@Label("Open Plugin Resource")
+@Category({"SpongePowered", "Plugin Resources"})
+@Description("A bundled plugin resource being opened, read or mapped")
+public final class OpenResourceEvent extends Event {
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Path")
+    public String path;
+
+    @Label("Resource")
+    public String resource;
+
+    @Label("Found")
+    public boolean found;
+
+    /**
+     * Ends timing and commits the event if it is enabled.
+     *
+     * @param owner The queryable the resource was requested from
+     * @param operation The operation, such as {@code openResource}
+     * @param path The relative path requested
+     * @param found Whether the resource was found
+     */
+    public void finish(final ResourceQueryable owner, final String operation, final String path, final boolean found) {
+        this.end();
+        if (this.shouldCommit()) {
+            this.operation = operation;
+            this.path = path;
+            this.resource = owner.toString();
+            this.found = found;
+            this.commit();
+        }
+    }
+}